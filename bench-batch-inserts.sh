@@ -0,0 +1,52 @@
+#!/bin/bash
+
+# Benchmark: SQL statements prepared per saved food item on POST /api/foods/create/batch
+#
+# Hibernate statistics feed the hibernate.* metrics, so start the app with them on:
+#   SPRING_PROFILES_ACTIVE=dev,maritaca-sim HIBERNATE_STATISTICS=true mvn spring-boot:run
+# Run once on a build from before the sequence ids (IDENTITY, one INSERT per row) and once after
+# (pooled sequences + JDBC batching) and compare. HIBERNATE_BATCH_SIZE changes the batch size.
+# The simulator answers the AI calls, they don't add statements.
+# To include the enrichment job rows, make every AI call fail so all items are saved PARTIAL and queued:
+#   mvn spring-boot:run -Dspring-boot.run.arguments=--maritaca.simulator.error-rate=1.0
+# Each save batch then adds a single job INSERT, not one per item.
+#
+# Requires: curl, awk, seq. Log in through the browser and pass the session cookie.
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+SESSION_COOKIE="${SESSION_COOKIE:?Set SESSION_COOKIE to the value of your JSESSIONID cookie}"
+BATCH_SIZES="${BATCH_SIZES:-10 50 200}"
+
+metric() {
+  # Sum of the measurement values of /actuator/metrics/$1, optionally filtered by tag
+  curl -s "${BASE_URL}/actuator/metrics/$1${2:+?tag=$2}" --cookie "JSESSIONID=${SESSION_COOKIE}" \
+    | awk -F'"value":' '{ for (i = 2; i <= NF; i++) { split($i, v, /[,}]/); sum += v[1] } } END { printf "%d", sum }'
+}
+
+if [ -z "$(metric hibernate.statements status:prepared)" ]; then
+  echo "hibernate.statements not found, start the app with HIBERNATE_STATISTICS=true" >&2
+  exit 1
+fi
+
+echo "Benchmarking batch inserts against ${BASE_URL}"
+printf "%-8s %-12s %-12s %-14s %-10s\n" "items" "status" "statements" "stmts/item" "inserts"
+
+for size in $BATCH_SIZES; do
+  body=$(seq 1 "$size" | awk -v run="$RANDOM" '{ printf "%s{\"name\": \"Bench batch %s-%d\", \"quantity\": 1, \"expiration\": \"2030-01-01\"}", (NR > 1 ? "," : ""), run, $1 }')
+
+  statements_before=$(metric hibernate.statements status:prepared)
+  inserts_before=$(metric hibernate.entities.inserts)
+
+  status=$(curl -s -o /dev/null -w "%{http_code}" -X POST "${BASE_URL}/api/foods/create/batch" \
+    -H "Content-Type: application/json" \
+    --cookie "JSESSIONID=${SESSION_COOKIE}" \
+    -d "[${body}]")
+
+  statements=$(( $(metric hibernate.statements status:prepared) - statements_before ))
+  inserts=$(( $(metric hibernate.entities.inserts) - inserts_before ))
+  per_item=$(awk -v s="$statements" -v n="$size" 'BEGIN { printf "%.2f", s / n }')
+
+  printf "%-8s %-12s %-12s %-14s %-10s\n" "$size" "$status" "$statements" "$per_item" "$inserts"
+done
+
+echo -e "\nstatements = JDBC statements prepared while serving the request (a JDBC batch counts once)"
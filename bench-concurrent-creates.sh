@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Benchmark: highest sustainable number of concurrent POST /api/foods/create
+#
+# Run it once per execution mode against the same setup and compare the results:
+#   SPRING_PROFILES_ACTIVE=dev,maritaca-sim VIRTUAL_THREADS_ENABLED=false TOMCAT_MAX_THREADS=200 mvn spring-boot:run
+#   SPRING_PROFILES_ACTIVE=dev,maritaca-sim VIRTUAL_THREADS_ENABLED=true mvn spring-boot:run
+# The simulator keeps AI latency realistic (median 800 ms) without spending credits. Raise
+# MARITACA_GUARD_LIMITER_MAX_LIMIT / DB_POOL_SIZE if you want to measure the threading model rather than those caps.
+#
+# A level is "sustained" when at least MIN_SUCCESS_PCT of the requests succeed (201) and p99 stays under MAX_P99_S.
+# Requires: curl, awk, sort, xargs. Log in through the browser and pass the session cookie.
+
+BASE_URL="${BASE_URL:-http://localhost:8080}"
+SESSION_COOKIE="${SESSION_COOKIE:?Set SESSION_COOKIE to the value of your JSESSIONID cookie}"
+LEVELS="${LEVELS:-25 50 100 200 400 800 1600}"
+REQUESTS_PER_LEVEL_FACTOR="${REQUESTS_PER_LEVEL_FACTOR:-3}"
+MIN_SUCCESS_PCT="${MIN_SUCCESS_PCT:-99}"
+MAX_P99_S="${MAX_P99_S:-10}"
+
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+create_one() {
+  curl -s -o /dev/null -w "%{http_code} %{time_total}\n" -X POST "${BASE_URL}/api/foods/create" \
+    -H "Content-Type: application/json" \
+    -H "Accept: application/json" \
+    --cookie "JSESSIONID=${SESSION_COOKIE}" \
+    -d "{\"name\": \"Bench item $1\", \"quantity\": 1, \"expiration\": \"2030-01-01\"}"
+}
+export -f create_one
+export BASE_URL SESSION_COOKIE
+
+echo "Benchmarking concurrent creates against ${BASE_URL}"
+printf "%-12s %-10s %-10s %-10s %-10s %-10s\n" "concurrency" "requests" "ok %" "p50 (s)" "p99 (s)" "req/s"
+
+best=0
+for level in $LEVELS; do
+  total=$((level * REQUESTS_PER_LEVEL_FACTOR))
+  start=$(date +%s%N)
+  seq 1 "$total" | xargs -P "$level" -I{} bash -c 'create_one {}' > "$RESULTS"
+  elapsed=$(awk -v start="$start" -v end="$(date +%s%N)" 'BEGIN { printf "%.3f", (end - start) / 1e9 }')
+
+  ok=$(awk '$1 == 201' "$RESULTS" | wc -l)
+  ok_pct=$(awk -v ok="$ok" -v total="$total" 'BEGIN { printf "%.1f", ok * 100 / total }')
+  p50=$(awk '{ print $2 }' "$RESULTS" | sort -n | awk '{ v[NR] = $1 } END { print v[int(NR * 0.50 + 0.5)] }')
+  p99=$(awk '{ print $2 }' "$RESULTS" | sort -n | awk '{ v[NR] = $1 } END { i = int(NR * 0.99 + 0.5); if (i < 1) i = 1; print v[i] }')
+  rps=$(awk -v total="$total" -v elapsed="$elapsed" 'BEGIN { printf "%.1f", total / elapsed }')
+
+  printf "%-12s %-10s %-10s %-10s %-10s %-10s\n" "$level" "$total" "$ok_pct" "$p50" "$p99" "$rps"
+
+  if awk -v pct="$ok_pct" -v p99="$p99" -v min="$MIN_SUCCESS_PCT" -v max="$MAX_P99_S" \
+      'BEGIN { exit !(pct >= min && p99 <= max) }'; then
+    best=$level
+  else
+    break
+  fi
+done
+
+echo -e "\nMax sustainable concurrent creates: ${best}"
+echo "Status codes seen at the last level:"
+awk '{ print $1 }' "$RESULTS" | sort | uniq -c
@@ -0,0 +1,65 @@
+package com.otavio.aifoodapp.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.exception.BulkheadFullException;
+import com.otavio.aifoodapp.util.Bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Execution lanes that keep AI-bound work from starving plain database reads.
+ * The AI lane caps how many requests can be waiting on Maritaca at once, so a brownout there
+ * leaves request threads and connections for reads like GET /api/foods and /api/auth/me.
+ */
+@Configuration
+@Slf4j
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead aiBulkhead(MeterRegistry meterRegistry,
+                               @Value("${app.bulkhead.ai.max-concurrent:40}") int maxConcurrent,
+                               @Value("${app.bulkhead.ai.max-queued:40}") int maxQueued,
+                               @Value("${app.bulkhead.ai.max-wait-ms:2000}") long maxWaitMs,
+                               @Value("${app.bulkhead.ai.retry-after-ms:2000}") long retryAfterMs) {
+        Duration retryAfter = Duration.ofMillis(retryAfterMs);
+        log.info("AI bulkhead: {} concurrent, {} queued, {} ms max wait", maxConcurrent, maxQueued, maxWaitMs);
+        // Same exception as the call guard, so callers' existing degradation paths apply
+        return new Bulkhead("ai", maxConcurrent, maxQueued, Duration.ofMillis(maxWaitMs),
+                message -> new AiServiceUnavailableException(message, retryAfter), meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead dbBulkhead(MeterRegistry meterRegistry,
+                               @Value("${app.bulkhead.db.max-concurrent:20}") int maxConcurrent,
+                               @Value("${app.bulkhead.db.max-queued:100}") int maxQueued,
+                               @Value("${app.bulkhead.db.max-wait-ms:1000}") long maxWaitMs,
+                               @Value("${app.bulkhead.db.retry-after-ms:1000}") long retryAfterMs) {
+        Duration retryAfter = Duration.ofMillis(retryAfterMs);
+        log.info("DB read bulkhead: {} concurrent, {} queued, {} ms max wait", maxConcurrent, maxQueued, maxWaitMs);
+        return new Bulkhead("db", maxConcurrent, maxQueued, Duration.ofMillis(maxWaitMs),
+                message -> new BulkheadFullException(message, retryAfter), meterRegistry);
+    }
+
+    /**
+     * Exports hold a connection for as long as they stream, so they get a small lane of their own
+     * instead of occupying the read lane for minutes
+     */
+    @Bean
+    public Bulkhead exportBulkhead(MeterRegistry meterRegistry,
+                                   @Value("${app.bulkhead.export.max-concurrent:4}") int maxConcurrent,
+                                   @Value("${app.bulkhead.export.max-queued:8}") int maxQueued,
+                                   @Value("${app.bulkhead.export.max-wait-ms:2000}") long maxWaitMs,
+                                   @Value("${app.bulkhead.export.retry-after-ms:10000}") long retryAfterMs) {
+        Duration retryAfter = Duration.ofMillis(retryAfterMs);
+        log.info("Export bulkhead: {} concurrent, {} queued, {} ms max wait", maxConcurrent, maxQueued, maxWaitMs);
+        return new Bulkhead("export", maxConcurrent, maxQueued, Duration.ofMillis(maxWaitMs),
+                message -> new BulkheadFullException(message, retryAfter), meterRegistry);
+    }
+}
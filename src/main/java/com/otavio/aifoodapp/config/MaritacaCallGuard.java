@@ -0,0 +1,190 @@
+package com.otavio.aifoodapp.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.util.AdaptiveConcurrencyLimiter;
+import com.otavio.aifoodapp.util.CircuitBreaker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control for Maritaca calls: an AIMD concurrency limiter plus a circuit breaker.
+ * Calls that can't be admitted fail fast with AiServiceUnavailableException instead of queueing,
+ * and upstream failures surface as the same exception so callers can degrade explicitly.
+ */
+@Component
+public class MaritacaCallGuard {
+    private static final Logger log = LoggerFactory.getLogger(MaritacaCallGuard.class);
+
+    private static final Duration LIMIT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final long latencyThresholdNanos;
+    private final Duration defaultRetryAfter;
+
+    public MaritacaCallGuard(MeterRegistry meterRegistry,
+                             @Value("${maritaca.guard.latency-threshold-ms:10000}") long latencyThresholdMs,
+                             @Value("${maritaca.guard.default-retry-after-ms:5000}") long defaultRetryAfterMs,
+                             @Value("${maritaca.guard.limiter.initial-limit:10}") int initialLimit,
+                             @Value("${maritaca.guard.limiter.min-limit:2}") int minLimit,
+                             @Value("${maritaca.guard.limiter.max-limit:50}") int maxLimit,
+                             @Value("${maritaca.guard.limiter.backoff-ratio:0.9}") double backoffRatio,
+                             @Value("${maritaca.guard.circuit.window-size:20}") int windowSize,
+                             @Value("${maritaca.guard.circuit.minimum-calls:10}") int minimumCalls,
+                             @Value("${maritaca.guard.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+                             @Value("${maritaca.guard.circuit.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+                             @Value("${maritaca.guard.circuit.open-duration-ms:30000}") long openDurationMs,
+                             @Value("${maritaca.guard.circuit.half-open-calls:3}") int halfOpenCalls) {
+        this.latencyThresholdNanos = Duration.ofMillis(latencyThresholdMs).toNanos();
+        this.defaultRetryAfter = Duration.ofMillis(defaultRetryAfterMs);
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                latencyThresholdNanos, backoffRatio, meterRegistry, "maritaca.limiter");
+        this.circuitBreaker = new CircuitBreaker(windowSize, minimumCalls,
+                failureRateThreshold, slowCallRateThreshold, latencyThresholdNanos,
+                Duration.ofMillis(openDurationMs), halfOpenCalls, meterRegistry, "maritaca.circuit");
+    }
+
+    public <T> Mono<T> guard(Mono<T> call) {
+        return Mono.defer(() -> {
+            Permit permit = acquire();
+            return call
+                    .doOnSuccess(value -> permit.success())
+                    .doOnError(permit::failure)
+                    .doOnCancel(permit::cancel);
+        }).onErrorMap(e -> !(e instanceof AiServiceUnavailableException), this::toUnavailable);
+    }
+
+    /**
+     * Streams hold their permit until they terminate, latency is measured to the first element
+     */
+    public <T> Flux<T> guard(Flux<T> call) {
+        return Flux.defer(() -> {
+            Permit permit = acquire();
+            return call
+                    .doOnNext(element -> permit.firstElement())
+                    .doOnComplete(permit::success)
+                    .doOnError(permit::failure)
+                    .doOnCancel(permit::cancel);
+        }).onErrorMap(e -> !(e instanceof AiServiceUnavailableException), this::toUnavailable);
+    }
+
+    private Permit acquire() {
+        CircuitBreaker.Permit breakerPermit = circuitBreaker.tryAcquire();
+        if (breakerPermit == null) {
+            Duration retryAfter = circuitBreaker.remainingOpenTime();
+            throw new AiServiceUnavailableException("Maritaca circuit breaker is open",
+                    retryAfter.isZero() ? LIMIT_RETRY_AFTER : retryAfter);
+        }
+        if (!limiter.tryAcquire()) {
+            circuitBreaker.onIgnore(breakerPermit);
+            throw new AiServiceUnavailableException("Maritaca concurrency limit reached", LIMIT_RETRY_AFTER);
+        }
+        return new Permit(breakerPermit, System.nanoTime());
+    }
+
+    private AiServiceUnavailableException toUnavailable(Throwable error) {
+        Duration retryAfter = defaultRetryAfter;
+        if (error instanceof WebClientResponseException responseException
+                && responseException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            // Respeita o Retry-After do provedor quando vier em segundos
+            String header = responseException.getHeaders().getFirst("Retry-After");
+            if (header != null && !header.isEmpty() && header.chars().allMatch(Character::isDigit)) {
+                retryAfter = Duration.ofSeconds(Long.parseLong(header));
+            }
+        }
+        Duration remainingOpen = circuitBreaker.remainingOpenTime();
+        if (remainingOpen.compareTo(retryAfter) > 0) {
+            retryAfter = remainingOpen;
+        }
+        return new AiServiceUnavailableException("Maritaca call failed: " + error.getMessage(), retryAfter, error);
+    }
+
+    /**
+     * Whether a failure surfaced by the guard is worth retrying: 408/429/5xx answers and connection errors.
+     * Rejections by the guard itself carry no cause and are not retried.
+     */
+    public static boolean isTransient(Throwable error) {
+        if (!(error instanceof AiServiceUnavailableException) || error.getCause() == null) {
+            return false;
+        }
+        Throwable cause = error.getCause();
+        return cause instanceof WebClientRequestException
+                || (cause instanceof WebClientResponseException && isUpstreamFailure(cause));
+    }
+
+    /**
+     * 4xx answers other than 408/429 are caused by the request, not by upstream health
+     */
+    private static boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            return status >= 500
+                    || status == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || status == HttpStatus.REQUEST_TIMEOUT.value();
+        }
+        return true;
+    }
+
+    private final class Permit {
+        private final CircuitBreaker.Permit breakerPermit;
+        private final long startedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long firstElementLatency = -1;
+
+        private Permit(CircuitBreaker.Permit breakerPermit, long startedAt) {
+            this.breakerPermit = breakerPermit;
+            this.startedAt = startedAt;
+        }
+
+        void firstElement() {
+            if (firstElementLatency < 0) {
+                firstElementLatency = System.nanoTime() - startedAt;
+            }
+        }
+
+        void success() {
+            if (released.compareAndSet(false, true)) {
+                long latency = firstElementLatency >= 0 ? firstElementLatency : System.nanoTime() - startedAt;
+                limiter.onSuccess(latency);
+                circuitBreaker.onSuccess(breakerPermit, latency);
+            }
+        }
+
+        void failure(Throwable error) {
+            if (released.compareAndSet(false, true)) {
+                if (isUpstreamFailure(error)) {
+                    log.warn("Maritaca call failed: {}", error.getMessage());
+                    limiter.onDropped();
+                    circuitBreaker.onError(breakerPermit);
+                } else {
+                    limiter.onIgnore();
+                    circuitBreaker.onIgnore(breakerPermit);
+                }
+            }
+        }
+
+        void cancel() {
+            // Caller gave up (timeout or disconnect): still a latency signal if it waited past the threshold
+            long elapsed = System.nanoTime() - startedAt;
+            if (firstElementLatency < 0 && elapsed > latencyThresholdNanos) {
+                success();
+            } else if (released.compareAndSet(false, true)) {
+                limiter.onIgnore();
+                circuitBreaker.onIgnore(breakerPermit);
+            }
+        }
+    }
+}
@@ -8,23 +8,41 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.otavio.aifoodapp.util.BudgetedRetry;
+import com.otavio.aifoodapp.util.RequestDeadline;
+import com.otavio.aifoodapp.util.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +51,14 @@ public class MaritacaChatClient implements ChatClient {
     private static final Logger log = LoggerFactory.getLogger(MaritacaChatClient.class);
 
     private final WebClient webClient;
+    private final MaritacaCallGuard callGuard;
+    private final MaritacaHedger hedger;
+    private final SingleFlight<String, ChatResponse> singleFlight;
+    private final MaritacaResponseDecoder responseDecoder = new MaritacaResponseDecoder();
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+    private static final String STREAM_DONE = "[DONE]";
 
     @Value("${maritaca.api.url}")
     private String apiUrl;
@@ -43,83 +69,184 @@ public class MaritacaChatClient implements ChatClient {
     @Value("${maritaca.api.model}")
     private String model;
 
-    public MaritacaChatClient(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl(apiUrl).build();
+    private final Counter promptTokens;
+    private final Counter completionTokens;
+    private final BudgetedRetry retry;
+    private final Duration defaultBudget;
+
+    /**
+     * @param maritacaWebClient client bound to the dedicated pool, see MaritacaHttpClientConfig
+     */
+    public MaritacaChatClient(@Qualifier("maritacaWebClient") WebClient maritacaWebClient,
+                              MaritacaCallGuard callGuard,
+                              MaritacaHedger hedger,
+                              MeterRegistry meterRegistry,
+                              @Value("${maritaca.retry.max-retries:2}") int maxRetries,
+                              @Value("${maritaca.retry.base-backoff-ms:200}") long baseBackoffMs,
+                              @Value("${maritaca.retry.max-backoff-ms:2000}") long maxBackoffMs,
+                              @Value("${maritaca.retry.default-budget-ms:30000}") long defaultBudgetMs) {
+        this.webClient = maritacaWebClient;
+        this.callGuard = callGuard;
+        this.hedger = hedger;
+        this.singleFlight = new SingleFlight<>(meterRegistry, "maritaca.calls");
+        this.promptTokens = Counter.builder("maritaca.tokens").tag("type", "prompt").register(meterRegistry);
+        this.completionTokens = Counter.builder("maritaca.tokens").tag("type", "completion").register(meterRegistry);
+        this.retry = new BudgetedRetry(maxRetries, Duration.ofMillis(baseBackoffMs), Duration.ofMillis(maxBackoffMs),
+                MaritacaCallGuard::isTransient, Counter.builder("maritaca.retries").register(meterRegistry));
+        this.defaultBudget = Duration.ofMillis(defaultBudgetMs);
     }
 
+    /**
+     * Identical prompts already in flight share a single API call.
+     * Fails with AiServiceUnavailableException when the call is rejected by the guard or the API fails,
+     * and with TimeoutException once the request deadline (see RequestDeadline) is exhausted.
+     * The shared call runs within the default budget, each caller waits only for its own deadline;
+     * the shared call is cancelled once every caller has given up.
+     */
     public Mono<ChatResponse> call(Prompt prompt) {
         Map<String, Object> requestBody = createRequestBody(prompt);
+        RequestDeadline assembledOn = RequestDeadline.current().orElse(null);
+
+        return Mono.deferContextual(context -> {
+            // The pipeline's deadline wins, then the calling request's, then the default budget
+            RequestDeadline deadline = context.<RequestDeadline>getOrEmpty(RequestDeadline.CONTEXT_KEY)
+                    .orElseGet(() -> assembledOn != null ? assembledOn : RequestDeadline.after(defaultBudget));
+            if (deadline.isExpired()) {
+                return Mono.error(new TimeoutException("Request deadline exceeded before calling Maritaca"));
+            }
+            return singleFlight.execute(requestKey(requestBody),
+                            () -> executeWithinDeadline(requestBody, RequestDeadline.after(defaultBudget)))
+                    .timeout(deadline.remaining());
+        });
+    }
 
+    /**
+     * Each attempt's timeout is the remaining budget; transient failures are retried while budget remains.
+     * Slow attempts may be hedged (see MaritacaHedger)
+     */
+    private Mono<ChatResponse> executeWithinDeadline(Map<String, Object> requestBody, RequestDeadline deadline) {
+        return Mono.defer(() -> {
+                    if (deadline.isExpired()) {
+                        return Mono.error(new TimeoutException("Request deadline exceeded before calling Maritaca"));
+                    }
+                    return hedger.hedge(() -> callGuard.guard(execute(requestBody)))
+                            .timeout(deadline.remaining());
+                })
+                .retryWhen(retry.within(deadline));
+    }
+
+    private Mono<ChatResponse> execute(Map<String, Object> requestBody) {
         log.debug("Enviando requisição para Maritaca API: {}", requestBody);
 
         return webClient.post()
                 .uri(apiUrl)
                 .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .accept(MediaType.APPLICATION_JSON)
                 .bodyValue(requestBody)
                 .retrieve()
-                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), clientResponse ->
-                        clientResponse.bodyToMono(String.class)
-                                .flatMap(errorBody -> {
-                                    log.error("Erro da API Maritaca. Status: {}, Body: {}", clientResponse.statusCode(), errorBody);
-                                    return Mono.error(new WebClientResponseException(
-                                            "API Error: " + clientResponse.statusCode() + " Body: " + errorBody,
-                                            clientResponse.statusCode().value(),
-                                            errorBody,
-                                            clientResponse.headers().asHttpHeaders(),
-                                            null, null
-                                    ));
-                                })
-                )
-                .bodyToMono(Map.class)
-                .map(responseMap -> {
-                    log.debug("Resposta recebida da Maritaca API: {}", responseMap);
-                    Object choicesObj = responseMap.get("choices");
-                    List<Generation> generations = new ArrayList<>();
-
-                    if (choicesObj instanceof List) {
-                        @SuppressWarnings("unchecked")
-                        List<Map<String, Object>> choices = (List<Map<String, Object>>) choicesObj;
-
-                        if (!choices.isEmpty()) {
-                            for (Map<String, Object> choice : choices) {
-                                Object messageObj = choice.get("message");
-                                if (messageObj instanceof Map) {
-                                    @SuppressWarnings("unchecked")
-                                    Map<String, Object> message = (Map<String, Object>) messageObj;
-                                    String content = (String) message.get("content");
-                                    if (content != null) {
-                                        generations.add(new Generation(new AssistantMessage(content)));
-                                    } else {
-                                        log.warn("Campo 'content' nulo na mensagem da API: {}", message);
-                                    }
-                                } else {
-                                    log.warn("Campo 'message' nulo ou não é um Map na escolha da API: {}", choice);
-                                }
-                            }
-                        } else {
-                            log.warn("Lista 'choices' vazia na resposta da API: {}", responseMap);
-                        }
-                    } else {
-                        log.warn("Campo 'choices' não é uma lista ou está nulo na resposta da API: {}", responseMap);
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), this::toApiError)
+                .bodyToMono(byte[].class)
+                .<MaritacaCompletion>handle((body, sink) -> {
+                    try {
+                        sink.next(responseDecoder.decode(body));
+                    } catch (IOException e) {
+                        sink.error(e);
                     }
-
-                    return new ChatResponse(generations);
                 })
-                .onErrorResume(e -> {
-                    log.error("Falha ao chamar a API Maritaca ou processar a resposta: {}", e.getMessage(), e);
+                .map(this::toChatResponse);
+    }
 
-                    AssistantMessage errorMessage = new AssistantMessage(
-                            "Desculpe, ocorreu um erro ao processar sua solicitação. Tente novamente mais tarde."
-                    );
+    private ChatResponse toChatResponse(MaritacaCompletion completion) {
+        recordUsage(completion.usage());
 
-                    List<Generation> errorGenerations = List.of(new Generation(errorMessage));
-                    return Mono.just(new ChatResponse(errorGenerations));
-                });
+        if (completion.choices().isEmpty()) {
+            log.warn("Resposta da API Maritaca sem 'choices' (id: {})", completion.id());
+        }
+
+        List<Generation> generations = new ArrayList<>(completion.choices().size());
+        for (MaritacaCompletion.Choice choice : completion.choices()) {
+            if (choice.content() != null) {
+                generations.add(new Generation(new AssistantMessage(choice.content())));
+            } else {
+                log.warn("Campo 'content' nulo na escolha {} da API (finish_reason: {})", choice.index(), choice.finishReason());
+            }
+            if ("length".equals(choice.finishReason())) {
+                log.warn("Resposta da API Maritaca truncada por limite de tokens (id: {})", completion.id());
+            }
+        }
+        return new ChatResponse(generations);
     }
 
+    private void recordUsage(MaritacaCompletion.Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        promptTokens.increment(usage.promptTokens());
+        completionTokens.increment(usage.completionTokens());
+        log.debug("Uso de tokens Maritaca: prompt={}, completion={}, total={}",
+                usage.promptTokens(), usage.completionTokens(), usage.totalTokens());
+    }
+
+    /**
+     * Stream the completion as server-sent events ("stream": true).
+     * Each emitted ChatResponse carries only the delta content of one chunk,
+     * chunks are decoded as they arrive without buffering the whole body.
+     */
     public Flux<ChatResponse> stream(Prompt prompt) {
-        throw new UnsupportedOperationException("Streaming not implemented.");
+        Map<String, Object> requestBody = createRequestBody(prompt);
+        requestBody.put("stream", true);
+
+        log.debug("Enviando requisição (stream) para Maritaca API: {}", requestBody);
+
+        Flux<ChatResponse> deltas = webClient.post()
+                .uri(apiUrl)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(requestBody)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), this::toApiError)
+                .bodyToFlux(SSE_EVENT_TYPE)
+                .takeWhile(event -> !STREAM_DONE.equals(event.data()))
+                .<ChatResponse>handle((event, sink) -> {
+                    if (event.data() == null) {
+                        return;
+                    }
+                    try {
+                        String content = responseDecoder.decodeDeltaContent(event.data());
+                        if (content != null && !content.isEmpty()) {
+                            sink.next(new ChatResponse(List.of(new Generation(new AssistantMessage(content)))));
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                });
+        return callGuard.guard(deltas);
+    }
+
+    /**
+     * Assemble streamed deltas into the full completion text, appending into a single buffer
+     */
+    public static Mono<String> assembleContent(Flux<ChatResponse> deltas) {
+        return deltas
+                .collect(StringBuilder::new, (buffer, chunk) -> buffer.append(chunk.getResult().getOutput().getText()))
+                .map(StringBuilder::toString);
+    }
+
+    private Mono<? extends Throwable> toApiError(ClientResponse clientResponse) {
+        return clientResponse.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .flatMap(errorBody -> {
+                    log.error("Erro da API Maritaca. Status: {}, Body: {}", clientResponse.statusCode(), errorBody);
+                    return Mono.error(new WebClientResponseException(
+                            "API Error: " + clientResponse.statusCode() + " Body: " + errorBody,
+                            clientResponse.statusCode().value(),
+                            errorBody,
+                            clientResponse.headers().asHttpHeaders(),
+                            null, null
+                    ));
+                });
     }
 
     private Map<String, Object> createRequestBody(Prompt prompt) {
@@ -135,6 +262,27 @@ public class MaritacaChatClient implements ChatClient {
         return requestBody;
     }
 
+    /**
+     * SHA-256 of the model plus the serialized message list
+     */
+    @SuppressWarnings("unchecked")
+    private String requestKey(Map<String, Object> requestBody) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(String.valueOf(requestBody.get("model")).getBytes(StandardCharsets.UTF_8));
+        for (Map<String, String> message : (List<Map<String, String>>) requestBody.get("messages")) {
+            digest.update((byte) 0);
+            digest.update(message.get("role").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(message.get("content").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     private Map<String, String> convertMessage(Message message) {
         Map<String, String> result = new HashMap<>();
         String role = "unknown";
@@ -0,0 +1,27 @@
+package com.otavio.aifoodapp.config;
+
+import java.util.List;
+
+/**
+ * Compact view of a chat/completions response, holding only the fields the app reads
+ */
+public record MaritacaCompletion(
+        String id,
+        String model,
+        List<Choice> choices,
+        Usage usage
+) {
+
+    public record Choice(
+            int index,
+            String role,
+            String content,
+            String finishReason
+    ) {}
+
+    public record Usage(
+            int promptTokens,
+            int completionTokens,
+            int totalTokens
+    ) {}
+}
@@ -0,0 +1,157 @@
+package com.otavio.aifoodapp.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Optional request hedging for Maritaca calls.
+ * When a call hasn't answered within a percentile of recent latencies, an identical call is sent;
+ * whichever answers first with a value wins and the other is cancelled. Hedges are capped by a per-minute budget.
+ */
+@Component
+public class MaritacaHedger {
+
+    private static final long WINDOW_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final boolean enabled;
+    private final double percentile;
+    private final Duration minDelay;
+    private final int budgetPerMinute;
+    private final int minSamples;
+
+    private final long[] latencies;
+    private int recorded;
+    private int position;
+
+    private long budgetWindowStart = System.nanoTime();
+    private int hedgesInWindow;
+
+    private final Counter issued;
+    private final Counter wins;
+    private final Counter budgetExhausted;
+
+    public MaritacaHedger(MeterRegistry meterRegistry,
+                          @Value("${maritaca.hedge.enabled:false}") boolean enabled,
+                          @Value("${maritaca.hedge.percentile:0.95}") double percentile,
+                          @Value("${maritaca.hedge.min-delay-ms:500}") long minDelayMs,
+                          @Value("${maritaca.hedge.budget-per-minute:30}") int budgetPerMinute,
+                          @Value("${maritaca.hedge.sample-size:200}") int sampleSize,
+                          @Value("${maritaca.hedge.min-samples:20}") int minSamples) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelay = Duration.ofMillis(minDelayMs);
+        this.budgetPerMinute = budgetPerMinute;
+        this.minSamples = minSamples;
+        this.latencies = new long[sampleSize];
+        this.issued = Counter.builder("maritaca.hedge.issued").register(meterRegistry);
+        this.wins = Counter.builder("maritaca.hedge.wins").register(meterRegistry);
+        this.budgetExhausted = Counter.builder("maritaca.hedge.budget-exhausted").register(meterRegistry);
+        Gauge.builder("maritaca.hedge.delay", this, hedger -> {
+            Duration delay = hedger.hedgeDelay();
+            return delay != null ? delay.toMillis() : Double.NaN;
+        }).baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    /**
+     * Fails only when every issued leg fails, with the primary's error. A primary that fails before the hedge
+     * is due fails the call right away, the retry policy decides what happens next
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return Mono.defer(() -> {
+            Duration delay = hedgeDelay();
+            if (delay == null) {
+                // Not enough samples yet to know what "slow" is
+                return timed(call.get());
+            }
+
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryEnded = Sinks.one();
+            Mono<T> primary = timed(call.get())
+                    .doOnError(primaryError::set)
+                    .doFinally(signal -> primaryEnded.tryEmitValue(true));
+
+            Mono<T> hedged = Mono.delay(delay)
+                    // Stop waiting once the primary has ended without a value, there is nothing left to race
+                    .takeUntilOther(primaryEnded.asMono())
+                    .flatMap(tick -> {
+                        if (!tryConsumeBudget()) {
+                            return Mono.<T>never().takeUntilOther(primaryEnded.asMono());
+                        }
+                        issued.increment();
+                        return timed(call.get()).doOnNext(value -> wins.increment());
+                    });
+
+            return Mono.firstWithValue(primary, hedged)
+                    .onErrorResume(e -> {
+                        Throwable primaryFailure = primaryError.get();
+                        if (primaryFailure != null) {
+                            return Mono.error(primaryFailure);
+                        }
+                        // Neither leg had a value and the primary completed empty
+                        return e instanceof NoSuchElementException ? Mono.empty() : Mono.error(e);
+                    });
+        });
+    }
+
+    /**
+     * Failed and cancelled calls are sampled too: dropping them would leave out the slowest calls
+     * (those the hedge beat, or that ran into a timeout) and bias the percentile low
+     */
+    private <T> Mono<T> timed(Mono<T> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.doFinally(signal -> record(System.nanoTime() - start));
+        });
+    }
+
+    synchronized void record(long latencyNanos) {
+        latencies[position] = latencyNanos;
+        position = (position + 1) % latencies.length;
+        if (recorded < latencies.length) {
+            recorded++;
+        }
+    }
+
+    /**
+     * @return the configured percentile of recent latencies (at least min-delay), or null with too few samples
+     */
+    synchronized Duration hedgeDelay() {
+        if (recorded < minSamples) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(recorded - 1, Math.ceil(percentile * recorded) - 1);
+        Duration delay = Duration.ofNanos(sorted[Math.max(0, index)]);
+        return delay.compareTo(minDelay) < 0 ? minDelay : delay;
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        long now = System.nanoTime();
+        if (now - budgetWindowStart >= WINDOW_NANOS) {
+            budgetWindowStart = now;
+            hedgesInWindow = 0;
+        }
+        if (hedgesInWindow >= budgetPerMinute) {
+            budgetExhausted.increment();
+            return false;
+        }
+        hedgesInWindow++;
+        return true;
+    }
+}
@@ -0,0 +1,82 @@
+package com.otavio.aifoodapp.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Pool de conexões dedicado para a API Maritaca.
+ * Separado do pool global para que a saturação da IA não afete outros clientes HTTP,
+ * e instrumentado para distinguir latência do provedor de espera por conexão:
+ * reactor.netty.connection.provider.* (active/idle/pending, tempo de aquisição)
+ * e reactor.netty.http.client.* (connect, TLS, tempo de resposta).
+ */
+@Configuration
+@Slf4j
+public class MaritacaHttpClientConfig {
+
+    private static final String POOL_NAME = "maritaca";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider maritacaConnectionProvider(
+            @Value("${maritaca.client.pool.max-connections:50}") int maxConnections,
+            @Value("${maritaca.client.pool.pending-acquire-max-count:200}") int pendingAcquireMaxCount,
+            @Value("${maritaca.client.pool.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${maritaca.client.pool.max-idle-time-ms:30000}") long maxIdleTimeMs,
+            @Value("${maritaca.client.pool.max-life-time-ms:300000}") long maxLifeTimeMs,
+            @Value("${maritaca.client.pool.evict-interval-ms:15000}") long evictIntervalMs) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient maritacaWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider maritacaConnectionProvider,
+            @Value("${maritaca.api.url}") String apiUrl,
+            @Value("${maritaca.client.max-response-bytes:262144}") int maxResponseBytes,
+            @Value("${maritaca.client.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${maritaca.client.response-timeout-ms:60000}") long responseTimeoutMs,
+            @Value("${maritaca.client.http2:true}") boolean http2) {
+
+        // HTTP/2 só é negociado via ALPN, então depende de TLS
+        boolean useHttp2 = http2 && apiUrl.startsWith("https://");
+        HttpProtocol[] protocols = useHttp2
+                ? new HttpProtocol[] {HttpProtocol.H2, HttpProtocol.HTTP11}
+                : new HttpProtocol[] {HttpProtocol.HTTP11};
+
+        HttpClient httpClient = HttpClient.create(maritacaConnectionProvider)
+                .protocol(protocols)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                // Tempo máximo entre leituras da resposta, vale também para o streaming SSE
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                // Um único valor de URI evita explosão de cardinalidade nas métricas
+                .metrics(true, uri -> "/chat/completions");
+
+        log.info("Maritaca HTTP client: pool '{}', protocols {}", POOL_NAME, useHttp2 ? "h2, http/1.1" : "http/1.1");
+
+        return webClientBuilder
+                .baseUrl(apiUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.otavio.aifoodapp.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Decodes Maritaca (OpenAI-compatible) chat/completions payloads with Jackson's streaming parser.
+ * Only the fields we use are materialized, everything else is skipped without building a tree.
+ */
+public class MaritacaResponseDecoder {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Decode a complete (non-streamed) response body
+     */
+    public MaritacaCompletion decode(byte[] body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object in Maritaca response");
+            }
+
+            String id = null;
+            String model = null;
+            List<MaritacaCompletion.Choice> choices = List.of();
+            MaritacaCompletion.Usage usage = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = readText(parser, value);
+                    case "model" -> model = readText(parser, value);
+                    case "choices" -> choices = readChoices(parser, value);
+                    case "usage" -> usage = readUsage(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new MaritacaCompletion(id, model, choices, usage);
+        }
+    }
+
+    /**
+     * Extract the delta content of a streamed chunk ("choices[0].delta.content")
+     * @return the content, or null when the chunk carries none (role-only or final chunk)
+     */
+    public String decodeDeltaContent(String chunk) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(chunk)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+                    return readFirstChoiceDelta(parser);
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    private List<MaritacaCompletion.Choice> readChoices(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<MaritacaCompletion.Choice> choices = new ArrayList<>(1);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int index = choices.size();
+            String role = null;
+            String content = null;
+            String finishReason = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken fieldValue = parser.nextToken();
+                switch (field) {
+                    case "index" -> index = fieldValue.isNumeric() ? parser.getIntValue() : index;
+                    case "finish_reason" -> finishReason = readText(parser, fieldValue);
+                    case "message" -> {
+                        if (fieldValue != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            break;
+                        }
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String messageField = parser.currentName();
+                            JsonToken messageValue = parser.nextToken();
+                            if ("role".equals(messageField)) {
+                                role = readText(parser, messageValue);
+                            } else if ("content".equals(messageField)) {
+                                content = readText(parser, messageValue);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            choices.add(new MaritacaCompletion.Choice(index, role, content, finishReason));
+        }
+        return choices;
+    }
+
+    private MaritacaCompletion.Usage readUsage(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        int promptTokens = 0;
+        int completionTokens = 0;
+        int totalTokens = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken fieldValue = parser.nextToken();
+            if (!fieldValue.isNumeric()) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "prompt_tokens" -> promptTokens = parser.getIntValue();
+                case "completion_tokens" -> completionTokens = parser.getIntValue();
+                case "total_tokens" -> totalTokens = parser.getIntValue();
+                default -> {
+                    // Other numeric usage details are ignored
+                }
+            }
+        }
+        return new MaritacaCompletion.Usage(promptTokens, completionTokens, totalTokens);
+    }
+
+    private String readText(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private String readFirstChoiceDelta(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("delta".equals(field) && value == JsonToken.START_OBJECT) {
+                return readContentField(parser);
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+
+    private String readContentField(JsonParser parser) throws IOException {
+        String content = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.VALUE_STRING) {
+                content = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return content;
+    }
+}
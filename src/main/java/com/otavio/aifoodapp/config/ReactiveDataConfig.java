@@ -0,0 +1,73 @@
+package com.otavio.aifoodapp.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * R2DBC access for the reactive /api/foods and /api/recipes stack ("reactive" profile).
+ * The pool is deliberately not exposed as a ConnectionFactory bean: Boot backs off from the JDBC DataSource
+ * when one exists, and JPA, Flyway and the session store still need it. For the same reason the reactive
+ * transaction manager is only reachable through a TransactionalOperator.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackages = "com.otavio.aifoodapp.repository.reactive",
+        entityOperationsRef = "reactiveEntityTemplate")
+@Slf4j
+public class ReactiveDataConfig {
+
+    private final ConnectionPool connectionPool;
+
+    public ReactiveDataConfig(@Value("${app.reactive.r2dbc.url}") String url,
+                              @Value("${app.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+                              @Value("${app.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+                              @Value("${app.reactive.r2dbc.pool.max-size:20}") int maxSize,
+                              @Value("${app.reactive.r2dbc.pool.max-acquire-time-ms:5000}") long maxAcquireTimeMs) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isBlank()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isBlank()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+
+        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("reactive-pool")
+                .maxSize(maxSize)
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+                .build();
+        this.connectionPool = new ConnectionPool(poolConfiguration);
+        log.info("Reactive stack enabled, R2DBC pool of up to {} connections", maxSize);
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityTemplate() {
+        return new R2dbcEntityTemplate(connectionPool);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionPool));
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionPool.dispose();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.otavio.aifoodapp.dto.UserDTO;
 import com.otavio.aifoodapp.model.User;
 import com.otavio.aifoodapp.repository.UserRepository;
+import com.otavio.aifoodapp.util.Bulkhead;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -31,9 +33,11 @@ import lombok.extern.slf4j.Slf4j;
 public class AuthController {
 
     private final UserRepository userRepository;
+    private final Bulkhead dbBulkhead;
 
-    public AuthController(UserRepository userRepository) {
+    public AuthController(UserRepository userRepository, @Qualifier("dbBulkhead") Bulkhead dbBulkhead) {
         this.userRepository = userRepository;
+        this.dbBulkhead = dbBulkhead;
     }
     
     /**
@@ -49,7 +53,7 @@ public class AuthController {
             String email = oauth2User.getAttribute("email");
             String name = oauth2User.getAttribute("name");
 
-            Optional<User> dbUser = (email != null) ? userRepository.findByEmail(email) : Optional.empty();
+            Optional<User> dbUser = (email != null) ? dbBulkhead.call(() -> userRepository.findByEmail(email)) : Optional.empty();
             if (dbUser.isPresent()) {
                 return ResponseEntity.ok(UserDTO.fromUser(dbUser.get()));
             } else {
@@ -0,0 +1,83 @@
+package com.otavio.aifoodapp.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.otavio.aifoodapp.enums.ExportFormat;
+import com.otavio.aifoodapp.service.ExportService;
+import com.otavio.aifoodapp.service.FoodItemService;
+import com.otavio.aifoodapp.util.Bulkhead;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Streaming exports of the user's pantry and recipes. Rows are written as they are read from the database,
+ * so an export of any size uses the same memory.
+ * Each export holds a database connection while it streams, so exports run in their own lane (see BulkheadConfig)
+ * and are cut off after app.export.timeout-ms instead of the servlet's default async timeout
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final FoodItemService foodItemService;
+    private final Bulkhead exportBulkhead;
+    private final long timeoutMs;
+
+    public ExportController(ExportService exportService, FoodItemService foodItemService,
+                            @Qualifier("exportBulkhead") Bulkhead exportBulkhead,
+                            @Value("${app.export.timeout-ms:300000}") long timeoutMs) {
+        this.exportService = exportService;
+        this.foodItemService = foodItemService;
+        this.exportBulkhead = exportBulkhead;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @GetMapping("/foods")
+    public WebAsyncTask<Void> exportFoods(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                          HttpServletResponse response) {
+        // Resolved here, the body is written on another thread without the security context
+        Long userId = foodItemService.getCurrentUser().getId();
+        return attachment(response, "pantry", format, out -> exportService.exportFoodItems(userId, format, out));
+    }
+
+    @GetMapping("/recipes")
+    public WebAsyncTask<Void> exportRecipes(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                                            HttpServletResponse response) {
+        Long userId = foodItemService.getCurrentUser().getId();
+        return attachment(response, "recipes", format, out -> exportService.exportRecipes(userId, format, out));
+    }
+
+    /**
+     * Headers are set only once the export lane admitted the call, so a rejection can still answer 503
+     */
+    private WebAsyncTask<Void> attachment(HttpServletResponse response, String name, ExportFormat format,
+                                          StreamingResponseBody body) {
+        return new WebAsyncTask<>(timeoutMs, () -> exportBulkhead.call(() -> {
+            response.setContentType(format.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(name + "." + format.getExtension())
+                    .build()
+                    .toString());
+            try {
+                body.writeTo(response.getOutputStream());
+                response.flushBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        }));
+    }
+}
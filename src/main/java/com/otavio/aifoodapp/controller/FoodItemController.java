@@ -1,6 +1,8 @@
 package com.otavio.aifoodapp.controller;
 
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -8,7 +10,11 @@ import java.util.Optional;
 import javax.validation.Valid;
 
 import lombok.Data;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,42 +25,61 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.otavio.aifoodapp.dto.FoodDto;
+import com.otavio.aifoodapp.dto.FoodEnrichmentDto;
 import com.otavio.aifoodapp.dto.FoodItemCreateDto;
+import com.otavio.aifoodapp.dto.FoodPageDto;
+import com.otavio.aifoodapp.dto.FoodQuery;
+import com.otavio.aifoodapp.dto.ImportResultDto;
+import com.otavio.aifoodapp.enums.ExportFormat;
+import com.otavio.aifoodapp.enums.FoodSort;
 import com.otavio.aifoodapp.mapper.FoodMapper;
 import com.otavio.aifoodapp.model.FoodItem;
 import com.otavio.aifoodapp.model.User;
+import com.otavio.aifoodapp.service.FoodImportService;
 import com.otavio.aifoodapp.service.FoodItemService;
 
 @RestController
 @RequestMapping("/api/foods")
+@Profile("!reactive")
 public class FoodItemController {
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(FoodItemController.class);
     
     private final FoodItemService foodItemService;
     private final FoodMapper foodMapper;
+    private final FoodImportService foodImportService;
 
 
-    public FoodItemController(FoodItemService foodItemService, FoodMapper foodMapper) {
+    public FoodItemController(FoodItemService foodItemService, FoodMapper foodMapper, FoodImportService foodImportService) {
         this.foodItemService = foodItemService;
         this.foodMapper = foodMapper;
+        this.foodImportService = foodImportService;
     }
     
     /**
      * Create a single food item with simplified data and AI enhancement
      * User will only provide name, quantity, and expiration date
      * AI will automatically determine all nutritional facts and food group
+     * With async=true the item is saved right away as PENDING and enriched in the background (202 Accepted)
      * @param createDto DTO with name, quantity, and expiration only
-     * @return The complete food item with AI-determined nutritional facts
+     * @param async whether to skip waiting for the AI
+     * @return The complete food item with AI-determined nutritional facts, or the pending item when async
      */
     @PostMapping("/create")
-    public ResponseEntity<?> create(@Valid @RequestBody FoodItemCreateDto createDto) {
+    public ResponseEntity<?> create(@Valid @RequestBody FoodItemCreateDto createDto,
+                                    @RequestParam(defaultValue = "false") boolean async) {
         try {
             log.info("Received create food request: {}", createDto.name());
             FoodItem foodItem = foodMapper.map(createDto);
+            if (async) {
+                FoodItem pendingItem = foodItemService.saveForEnrichment(foodItem);
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(foodMapper.map(pendingItem));
+            }
             FoodItem savedItem = foodItemService.saveWithAiEnhancement(foodItem);
             return ResponseEntity.status(HttpStatus.CREATED).body(foodMapper.map(savedItem));
         } catch (Exception e) {
@@ -67,6 +92,45 @@ public class FoodItemController {
         }
     }
 
+    /**
+     * Create several food items at once, enriching them with AI in parallel
+     * @param createDtos list of items with name, quantity, and expiration only
+     * @return each item with its enrichment status (ENRICHED, TIMED_OUT, DEFERRED, FALLBACK or NOT_SAVED), in request order
+     */
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<FoodEnrichmentDto>> createBatch(@Valid @RequestBody List<FoodItemCreateDto> createDtos) {
+        log.info("Received batch create food request with {} items", createDtos.size());
+        List<FoodItem> foodItems = createDtos.stream()
+                .map(foodMapper::map)
+                .toList();
+        List<FoodEnrichmentDto> result = foodItemService.saveAllWithAiEnhancement(foodItems).stream()
+                .map(enriched -> new FoodEnrichmentDto(foodMapper.map(enriched.foodItem()), enriched.outcome().name()))
+                .toList();
+        return ResponseEntity.status(HttpStatus.CREATED).body(result);
+    }
+
+    /**
+     * Bulk import from a CSV or NDJSON request body, loaded with COPY while it is read.
+     * Invalid rows are skipped and reported by line; an import that stops early reports how far it got (see ImportResultDto)
+     * @param format overrides the format given by the Content-Type
+     * @param enrich queue AI enrichment for rows without nutrition facts
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ImportResultDto> importFoods(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                       @RequestParam(required = false) ExportFormat format,
+                                                       @RequestParam(defaultValue = "false") boolean enrich,
+                                                       InputStream body) throws IOException {
+        Long userId = foodItemService.getCurrentUser().getId();
+        ExportFormat bodyFormat = format != null ? format : formatOf(contentType);
+        return ResponseEntity.ok(foodImportService.importFoods(userId, bodyFormat, body, enrich));
+    }
+
+    private static ExportFormat formatOf(MediaType contentType) {
+        return MediaType.parseMediaType(ExportFormat.NDJSON.getContentType()).equalsTypeAndSubtype(contentType)
+                ? ExportFormat.NDJSON
+                : ExportFormat.CSV;
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FoodDto> getById(@PathVariable Long id) {
         return foodItemService.listById(id)
@@ -75,14 +139,24 @@ public class FoodItemController {
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
+    /**
+     * Paginated pantry listing with keyset cursors; filters are optional query parameters (see FoodQuery)
+     * @param sort EXPIRATION, NAME, CALORIES, PROTEIN or CREATED
+     * @param cursor nextCursor of the previous page
+     */
+    @GetMapping("/page")
+    public ResponseEntity<FoodPageDto> listPage(FoodQuery query,
+                                                @RequestParam(defaultValue = "EXPIRATION") FoodSort sort,
+                                                @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(foodItemService.listPage(query, sort, direction, cursor, size));
+    }
+
     @GetMapping
     public ResponseEntity<List<FoodDto>> list() {
         try {
-            List<FoodItem> foodItems = foodItemService.listAll();
-            List<FoodDto> foodDtos = foodItems.stream()
-                    .map(foodMapper::map)
-                    .toList();
-            return ResponseEntity.ok(foodDtos);
+            return ResponseEntity.ok(foodItemService.listAllDtos());
         } catch (Exception e) {
             // Log the exception details for debugging
             log.error("Error listing food items: {}", e.getMessage(), e);
@@ -2,6 +2,7 @@ package com.otavio.aifoodapp.controller;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,6 +15,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.exception.BulkheadFullException;
 import com.otavio.aifoodapp.exception.UsernameOrPasswordInvalidException;
 
 import lombok.extern.slf4j.Slf4j;
@@ -62,6 +65,63 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 ));
     }
 
+    /**
+     * Tratar indisponibilidade da IA (circuit breaker aberto, limite de concorrência ou falha da API)
+     */
+    @ExceptionHandler(AiServiceUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleAiServiceUnavailableException(AiServiceUnavailableException ex, WebRequest request) {
+        log.warn("AI service unavailable: {}", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(org.springframework.http.HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                    "error", "ai_service_unavailable",
+                    "message", "AI service is temporarily unavailable, try again later",
+                    "retryAfterSeconds", retryAfterSeconds,
+                    "path", request.getDescription(false).replace("uri=", ""),
+                    "status", 503
+                ));
+    }
+
+    /**
+     * Tratar rejeição por falta de espaço na fila de execução (ver Bulkhead)
+     */
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, Object>> handleBulkheadFullException(BulkheadFullException ex, WebRequest request) {
+        log.warn("Request rejected by bulkhead: {}", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(org.springframework.http.HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                    "error", "service_busy",
+                    "message", "The server is busy, try again later",
+                    "retryAfterSeconds", retryAfterSeconds,
+                    "path", request.getDescription(false).replace("uri=", ""),
+                    "status", 503
+                ));
+    }
+
+    /**
+     * Tratar estouro do prazo da requisição (ver RequestDeadline)
+     */
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleTimeoutException(TimeoutException ex, WebRequest request) {
+        log.warn("Request deadline exceeded: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(Map.of(
+                    "error", "deadline_exceeded",
+                    "message", "The request ran out of time waiting for the AI service",
+                    "path", request.getDescription(false).replace("uri=", ""),
+                    "status", 504
+                ));
+    }
+
     /**
      * Tratar exceções de validação de argumentos
      */
@@ -0,0 +1,233 @@
+package com.otavio.aifoodapp.controller;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.service.MaritacaSimulatorService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Local stand-in for Maritaca's chat/completions endpoint, active only with the "maritaca-sim" profile.
+ * Latency follows a log-normal distribution (median / p99), and faults are injected by rate:
+ * 500 errors, 429 bursts on a fixed period, and truncated answers (finish_reason=length, streams without [DONE]).
+ * The random source is seeded so runs can be reproduced.
+ */
+@RestController
+@RequestMapping("/sim/maritaca")
+@Profile("maritaca-sim")
+public class MaritacaSimulatorController {
+
+    private static final Logger log = LoggerFactory.getLogger(MaritacaSimulatorController.class);
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    private enum Fault { NONE, RATE_LIMITED, ERROR, TRUNCATED }
+
+    private final MaritacaSimulatorService simulatorService;
+    private final ObjectMapper objectMapper;
+    private final Random random;
+
+    private final double medianLatencyMs;
+    private final double latencySigma;
+    private final long maxLatencyMs;
+    private final double errorRate;
+    private final double truncateRate;
+    private final long burstEveryMs;
+    private final long burstDurationMs;
+    private final int streamChunkChars;
+    private final Duration streamChunkDelay;
+
+    public MaritacaSimulatorController(MaritacaSimulatorService simulatorService, ObjectMapper objectMapper,
+                                       @Value("${maritaca.simulator.seed:42}") long seed,
+                                       @Value("${maritaca.simulator.latency.median-ms:800}") long medianLatencyMs,
+                                       @Value("${maritaca.simulator.latency.p99-ms:4000}") long p99LatencyMs,
+                                       @Value("${maritaca.simulator.latency.max-ms:30000}") long maxLatencyMs,
+                                       @Value("${maritaca.simulator.error-rate:0.0}") double errorRate,
+                                       @Value("${maritaca.simulator.truncate-rate:0.0}") double truncateRate,
+                                       @Value("${maritaca.simulator.rate-limit.burst-every-ms:0}") long burstEveryMs,
+                                       @Value("${maritaca.simulator.rate-limit.burst-duration-ms:2000}") long burstDurationMs,
+                                       @Value("${maritaca.simulator.stream.chunk-chars:24}") int streamChunkChars,
+                                       @Value("${maritaca.simulator.stream.chunk-delay-ms:30}") long streamChunkDelayMs) {
+        this.simulatorService = simulatorService;
+        this.objectMapper = objectMapper;
+        this.random = new Random(seed);
+        this.medianLatencyMs = Math.max(1, medianLatencyMs);
+        this.latencySigma = Math.log(Math.max(p99LatencyMs, this.medianLatencyMs) / this.medianLatencyMs) / Z_99;
+        this.maxLatencyMs = maxLatencyMs;
+        this.errorRate = errorRate;
+        this.truncateRate = truncateRate;
+        this.burstEveryMs = burstEveryMs;
+        this.burstDurationMs = burstDurationMs;
+        this.streamChunkChars = Math.max(1, streamChunkChars);
+        this.streamChunkDelay = Duration.ofMillis(streamChunkDelayMs);
+        log.warn("Maritaca simulator active: median {} ms, p99 {} ms, error rate {}, truncate rate {}, 429 burst every {} ms",
+                medianLatencyMs, p99LatencyMs, errorRate, truncateRate, burstEveryMs);
+    }
+
+    @PostMapping(value = "/chat/completions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> complete(@RequestBody Map<String, Object> request) {
+        Fault fault = nextFault();
+        return Mono.delay(nextLatency())
+                .map(tick -> switch (fault) {
+                    case RATE_LIMITED -> rateLimited();
+                    case ERROR -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("{\"error\":{\"message\":\"Simulated upstream failure\"}}");
+                    case TRUNCATED -> ResponseEntity.ok(completion(request, truncate(answer(request)), "length"));
+                    case NONE -> ResponseEntity.ok(completion(request, answer(request), "stop"));
+                });
+    }
+
+    @PostMapping(value = "/chat/completions", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> stream(@RequestBody Map<String, Object> request) {
+        Fault fault = nextFault();
+        if (fault == Fault.RATE_LIMITED) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(Flux.empty());
+        }
+        if (fault == Fault.ERROR) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Flux.empty());
+        }
+
+        boolean truncated = fault == Fault.TRUNCATED;
+        String content = truncated ? truncate(answer(request)) : answer(request);
+        String id = "sim-" + UUID.randomUUID();
+
+        List<String> pieces = new ArrayList<>();
+        for (int start = 0; start < content.length(); start += streamChunkChars) {
+            pieces.add(content.substring(start, Math.min(content.length(), start + streamChunkChars)));
+        }
+
+        Flux<ServerSentEvent<String>> deltas = Flux.fromIterable(pieces)
+                .map(piece -> event(chunk(id, piece, null)))
+                .delayElements(streamChunkDelay);
+
+        // A truncated stream ends without the [DONE] sentinel, as when the connection drops
+        Flux<ServerSentEvent<String>> ending = truncated
+                ? Flux.just(event(chunk(id, null, "length")))
+                : Flux.just(event(chunk(id, null, "stop")), event("[DONE]"));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(deltas.concatWith(ending).delaySubscription(nextLatency()));
+    }
+
+    private ResponseEntity<String> rateLimited() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("{\"error\":{\"message\":\"Simulated rate limit\"}}");
+    }
+
+    private Fault nextFault() {
+        if (burstEveryMs > 0 && System.currentTimeMillis() % burstEveryMs < burstDurationMs) {
+            return Fault.RATE_LIMITED;
+        }
+        double roll = random.nextDouble();
+        if (roll < errorRate) {
+            return Fault.ERROR;
+        }
+        if (roll < errorRate + truncateRate) {
+            return Fault.TRUNCATED;
+        }
+        return Fault.NONE;
+    }
+
+    private Duration nextLatency() {
+        double latency = medianLatencyMs * Math.exp(latencySigma * random.nextGaussian());
+        return Duration.ofMillis(Math.min(maxLatencyMs, Math.round(latency)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String answer(Map<String, Object> request) {
+        String prompt = "";
+        Object messages = request.get("messages");
+        if (messages instanceof List<?> list) {
+            for (Object message : list) {
+                if (message instanceof Map<?, ?> map && "user".equals(map.get("role"))) {
+                    prompt = String.valueOf(((Map<String, Object>) map).get("content"));
+                }
+            }
+        }
+        return simulatorService.answer(prompt);
+    }
+
+    private static String truncate(String content) {
+        return content.substring(0, content.length() / 2);
+    }
+
+    private String completion(Map<String, Object> request, String content, String finishReason) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("role", "assistant");
+        message.put("content", content);
+
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("message", message);
+        choice.put("finish_reason", finishReason);
+
+        int promptTokens = String.valueOf(request.get("messages")).length() / 4;
+        int completionTokens = content.length() / 4;
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", "sim-" + UUID.randomUUID());
+        response.put("object", "chat.completion");
+        response.put("model", request.getOrDefault("model", "sabia-sim"));
+        response.put("choices", List.of(choice));
+        response.put("usage", Map.of(
+                "prompt_tokens", promptTokens,
+                "completion_tokens", completionTokens,
+                "total_tokens", promptTokens + completionTokens));
+        return write(response);
+    }
+
+    private String chunk(String id, String content, String finishReason) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        if (content != null) {
+            delta.put("content", content);
+        }
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("id", id);
+        chunk.put("object", "chat.completion.chunk");
+        chunk.put("choices", List.of(choice));
+        return write(chunk);
+    }
+
+    private static ServerSentEvent<String> event(String data) {
+        return ServerSentEvent.<String>builder(data).build();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize simulated response", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.otavio.aifoodapp.controller;
+
+import java.util.List;
+
+import javax.validation.Valid;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.otavio.aifoodapp.dto.FoodDto;
+import com.otavio.aifoodapp.dto.FoodItemCreateDto;
+import com.otavio.aifoodapp.mapper.FoodMapper;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.service.ReactiveFoodItemService;
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * /api/foods on the reactive stack ("reactive" profile), replacing FoodItemController.
+ * Handlers return Mono, so the servlet thread is released while the AI and R2DBC calls run.
+ * Batch creation and the debug endpoints stay servlet-only.
+ */
+@RestController
+@RequestMapping("/api/foods")
+@Profile("reactive")
+public class ReactiveFoodItemController {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveFoodItemController.class);
+
+    private final ReactiveFoodItemService foodItemService;
+    private final FoodMapper foodMapper;
+
+    public ReactiveFoodItemController(ReactiveFoodItemService foodItemService, FoodMapper foodMapper) {
+        this.foodItemService = foodItemService;
+        this.foodMapper = foodMapper;
+    }
+
+    /**
+     * Create a food item with AI enhancement; with async=true it is saved as PENDING and enriched in the background
+     */
+    @PostMapping("/create")
+    public Mono<ResponseEntity<FoodDto>> create(@Valid @RequestBody FoodItemCreateDto createDto,
+                                                @RequestParam(defaultValue = "false") boolean async) {
+        log.info("Received create food request: {}", createDto.name());
+        FoodItem foodItem = foodMapper.map(createDto);
+
+        return foodItemService.currentUserId()
+                .flatMap(userId -> async
+                        ? foodItemService.saveForEnrichment(foodItem, userId)
+                        : foodItemService.saveWithAiEnhancement(foodItem, userId))
+                .map(saved -> ResponseEntity.status(async ? HttpStatus.ACCEPTED : HttpStatus.CREATED)
+                        .body(foodMapper.map(saved)))
+                .contextWrite(RequestDeadline.propagate());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<FoodDto>> getById(@PathVariable Long id) {
+        return foodItemService.currentUserId()
+                .flatMap(userId -> foodItemService.findById(id, userId))
+                .map(foodMapper::map)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<FoodDto>>> list() {
+        return foodItemService.currentUserId()
+                .flatMap(foodItemService::listAll)
+                .map(items -> items.stream().map(foodMapper::map).toList())
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<FoodDto>> update(@PathVariable Long id, @Valid @RequestBody FoodItemCreateDto createDto) {
+        FoodItem foodItem = foodMapper.map(createDto);
+        foodItem.setId(id);
+
+        return foodItemService.currentUserId()
+                .flatMap(userId -> foodItemService.findById(id, userId)
+                        .then(foodItemService.saveWithAiEnhancement(foodItem, userId)))
+                .map(foodMapper::map)
+                .map(ResponseEntity::ok)
+                .contextWrite(RequestDeadline.propagate());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return foodItemService.currentUserId()
+                .flatMap(userId -> foodItemService.delete(id, userId))
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.otavio.aifoodapp.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.otavio.aifoodapp.dto.RecipeDto;
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.service.ChatService;
+import com.otavio.aifoodapp.service.ReactiveFoodItemService;
+import com.otavio.aifoodapp.service.ReactiveRecipeService;
+import com.otavio.aifoodapp.service.RecipeCache;
+import com.otavio.aifoodapp.util.PantryFingerprint;
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * /api/recipes on the reactive stack ("reactive" profile), replacing RecipeController.
+ * The job endpoints are servlet-only: here a pending generation holds no thread, so clients can simply wait.
+ */
+@RestController
+@RequestMapping("/api/recipes")
+@Profile("reactive")
+public class ReactiveRecipeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRecipeController.class);
+    private static final String RECIPE_CACHE_HEADER = "X-Recipe-Cache";
+
+    private final ReactiveFoodItemService foodItemService;
+    private final ReactiveRecipeService recipeService;
+    private final ChatService chatService;
+    private final RecipeCache recipeCache;
+
+    public ReactiveRecipeController(ReactiveFoodItemService foodItemService, ReactiveRecipeService recipeService,
+                                    ChatService chatService, RecipeCache recipeCache) {
+        this.foodItemService = foodItemService;
+        this.recipeService = recipeService;
+        this.chatService = chatService;
+        this.recipeCache = recipeCache;
+    }
+
+    /**
+     * Same contract as the servlet /gen, including the X-Recipe-Cache header
+     */
+    @GetMapping("/gen")
+    public Mono<ResponseEntity<List<RecipeDto>>> generateRecipe(@RequestParam(defaultValue = "false") boolean refresh) {
+        return foodItemService.currentUserId()
+                .flatMap(userId -> foodItemService.listAll(userId)
+                        .flatMap(foodItems -> {
+                            String fingerprint = PantryFingerprint.of(foodItems, LocalDate.now());
+                            if (!refresh) {
+                                Optional<List<RecipeDto>> cached = recipeCache.get(userId, fingerprint);
+                                if (cached.isPresent()) {
+                                    return Mono.just(withCacheStatus("HIT", cached.get()));
+                                }
+                            }
+                            return chatService.generateRecipe(foodItems)
+                                    .flatMap(recipes -> recipeService.saveAll(recipes, userId))
+                                    .doOnNext(recipes -> recipeCache.put(userId, fingerprint, recipes))
+                                    .map(recipes -> withCacheStatus("MISS", recipes))
+                                    .onErrorResume(AiServiceUnavailableException.class, e -> recipeCache.getStale(userId)
+                                            .map(stale -> {
+                                                logger.warn("AI unavailable, serving last generated recipes for user {}", userId);
+                                                return Mono.just(withCacheStatus("STALE", stale));
+                                            })
+                                            .orElseGet(() -> Mono.error(e)));
+                        }))
+                .contextWrite(RequestDeadline.propagate())
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<List<RecipeDto>> withCacheStatus(String status, List<RecipeDto> recipes) {
+        return ResponseEntity.ok().header(RECIPE_CACHE_HEADER, status).body(recipes);
+    }
+
+    @GetMapping(value = "/gen/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RecipeDto> streamRecipes() {
+        return foodItemService.currentUserId()
+                .flatMapMany(userId -> foodItemService.listAll(userId)
+                        .flatMapMany(chatService::streamRecipes)
+                        .concatMap(recipe -> recipeService.save(recipe, userId)));
+    }
+
+    @GetMapping("/analyze/{id}")
+    public Mono<ResponseEntity<String>> analyzeRecipe(@PathVariable Long id) {
+        logger.info("Received request to analyze recipe with id: {}", id);
+        return recipeService.findById(id)
+                .flatMap(chatService::analyzeNutritionalProfile)
+                .contextWrite(RequestDeadline.propagate())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -1,57 +1,126 @@
 package com.otavio.aifoodapp.controller;
 
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.otavio.aifoodapp.dto.RecipeDto;
+import com.otavio.aifoodapp.dto.RecipeJobDto;
+import com.otavio.aifoodapp.enums.RecipeJobStatus;
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
 import com.otavio.aifoodapp.mapper.RecipeMapper;
 import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.model.Recipe;
 import com.otavio.aifoodapp.service.ChatService;
 import com.otavio.aifoodapp.service.FoodItemService;
+import com.otavio.aifoodapp.service.RecipeCache;
+import com.otavio.aifoodapp.service.RecipeJobService;
 import com.otavio.aifoodapp.service.RecipeService;
+import com.otavio.aifoodapp.util.PantryFingerprint;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 @RestController
 @RequestMapping("/api/recipes")
+@Profile("!reactive")
 public class RecipeController {
 
     private static final Logger logger = LoggerFactory.getLogger(RecipeController.class);
+    private static final String RECIPE_CACHE_HEADER = "X-Recipe-Cache";
 
     private final FoodItemService foodItemService;
     private final ChatService chatService;
     private final RecipeService recipeService;
+    private final RecipeCache recipeCache;
+    private final RecipeJobService recipeJobService;
+    private final Duration maxJobWait;
     // Removed unused field
     // private final RecipeMapper recipeMapper;
 
-    public RecipeController(FoodItemService foodItemService, ChatService chatService, RecipeService recipeService, RecipeMapper recipeMapper) {
+    public RecipeController(FoodItemService foodItemService, ChatService chatService, RecipeService recipeService,
+                            RecipeCache recipeCache, RecipeJobService recipeJobService, RecipeMapper recipeMapper,
+                            @Value("${app.recipes.jobs.max-wait-ms:25000}") long maxJobWaitMs) {
         this.foodItemService = foodItemService;
         this.chatService = chatService;
         this.recipeService = recipeService;
+        this.recipeCache = recipeCache;
+        this.recipeJobService = recipeJobService;
+        this.maxJobWait = Duration.ofMillis(maxJobWaitMs);
         // recipeMapper is not used, so we don't need to assign it to a field
     }
 
+    /**
+     * Generate recipes for the user's pantry. The last generated set is served from cache
+     * while the pantry fingerprint is unchanged, unless refresh=true.
+     * The X-Recipe-Cache header tells HIT, MISS or STALE (AI unavailable, last known set served)
+     */
     @GetMapping("/gen")
-    public Mono<ResponseEntity<List<RecipeDto>>> generateRecipe() {
+    public Mono<ResponseEntity<List<RecipeDto>>> generateRecipe(@RequestParam(defaultValue = "false") boolean refresh) {
+        Long userId = foodItemService.getCurrentUser().getId();
         List<FoodItem> foodItems = foodItemService.listAll();
+        String fingerprint = PantryFingerprint.of(foodItems, LocalDate.now());
+
+        if (!refresh) {
+            Optional<List<RecipeDto>> cached = recipeCache.get(userId, fingerprint);
+            if (cached.isPresent()) {
+                return Mono.just(withCacheStatus("HIT", cached.get()));
+            }
+        }
 
         return chatService.generateRecipe(foodItems)
                 .flatMap(recipes ->
-                        Mono.fromCallable(() -> recipeService.saveAndMapToDto(recipes))
+                        Mono.fromCallable(() -> recipeService.saveAndMapToDto(recipes, userId))
                                 .subscribeOn(Schedulers.boundedElastic())
                 )
-                .map(ResponseEntity::ok)
+                .doOnNext(recipes -> recipeCache.put(userId, fingerprint, recipes))
+                .map(recipes -> withCacheStatus("MISS", recipes))
+                .onErrorResume(AiServiceUnavailableException.class, e -> recipeCache.getStale(userId)
+                        .map(stale -> {
+                            logger.warn("AI unavailable, serving last generated recipes for user {}", userId);
+                            return Mono.just(withCacheStatus("STALE", stale));
+                        })
+                        .orElseGet(() -> Mono.error(e)))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    private static ResponseEntity<List<RecipeDto>> withCacheStatus(String status, List<RecipeDto> recipes) {
+        return ResponseEntity.ok().header(RECIPE_CACHE_HEADER, status).body(recipes);
+    }
+
+    /**
+     * Streaming variant of /gen: each recipe is persisted and sent (SSE or NDJSON)
+     * as soon as the model finishes writing its JSON object
+     */
+    @GetMapping(value = "/gen/stream", produces = {MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RecipeDto> streamRecipes() {
+        Long userId = foodItemService.getCurrentUser().getId();
+        List<FoodItem> foodItems = foodItemService.listAll();
+
+        return chatService.streamRecipes(foodItems)
+                .concatMap(recipe ->
+                        Mono.fromCallable(() -> recipeService.saveAndMapToDto(List.of(recipe), userId).get(0))
+                                .subscribeOn(Schedulers.boundedElastic())
+                );
+    }
+
     @GetMapping("/analyze/{id}")
     public Mono<ResponseEntity<String>> analyzeRecipe(@PathVariable Long id) {
         logger.info("Received request to analyze recipe with id: {}", id);
@@ -65,4 +134,48 @@ public class RecipeController {
                 .map(ResponseEntity::ok)
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    /**
+     * Job variant of /gen: returns 202 with the job id at once, the result is fetched from /jobs/{jobId}
+     */
+    @PostMapping("/jobs/gen")
+    public ResponseEntity<RecipeJobDto> submitGeneration(@RequestParam(defaultValue = "false") boolean refresh) {
+        Long userId = foodItemService.getCurrentUser().getId();
+        RecipeJobDto job = recipeJobService.submitGeneration(userId, foodItemService.listAll(), refresh);
+        return accepted(job);
+    }
+
+    /**
+     * Job variant of /analyze/{id}
+     */
+    @PostMapping("/jobs/analyze/{id}")
+    public ResponseEntity<RecipeJobDto> submitAnalysis(@PathVariable Long id) {
+        Long userId = foodItemService.getCurrentUser().getId();
+        Recipe recipe = recipeService.findById(id).orElseThrow();
+        return accepted(recipeJobService.submitAnalysis(userId, recipe));
+    }
+
+    /**
+     * State of a recipe job. With waitMs the request is held (long-polling) until the job finishes or the wait runs out;
+     * 200 when finished, 202 while still queued or running
+     */
+    @GetMapping("/jobs/{jobId}")
+    public Mono<ResponseEntity<RecipeJobDto>> getJob(@PathVariable String jobId,
+                                                     @RequestParam(defaultValue = "0") long waitMs) {
+        Long userId = foodItemService.getCurrentUser().getId();
+        Duration wait = Duration.ofMillis(Math.max(0, Math.min(waitMs, maxJobWait.toMillis())));
+
+        return recipeJobService.await(jobId, userId, wait)
+                .map(job -> ResponseEntity.status(isFinished(job) ? HttpStatus.OK : HttpStatus.ACCEPTED).body(job));
+    }
+
+    private static boolean isFinished(RecipeJobDto job) {
+        return RecipeJobStatus.SUCCEEDED.name().equals(job.status()) || RecipeJobStatus.FAILED.name().equals(job.status());
+    }
+
+    private static ResponseEntity<RecipeJobDto> accepted(RecipeJobDto job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/recipes/jobs/" + job.id()))
+                .body(job);
+    }
+}
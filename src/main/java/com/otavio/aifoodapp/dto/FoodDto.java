@@ -15,5 +15,6 @@ public record FoodDto(
         Double sugar,
         Double sodium,
         String foodGroup,
-        String tags
+        String tags,
+        String enrichmentStatus
 ) {}
\ No newline at end of file
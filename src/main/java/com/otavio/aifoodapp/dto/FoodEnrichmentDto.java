@@ -0,0 +1,6 @@
+package com.otavio.aifoodapp.dto;
+
+public record FoodEnrichmentDto(
+        FoodDto item,
+        String status
+) {}
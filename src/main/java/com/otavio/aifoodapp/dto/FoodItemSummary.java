@@ -0,0 +1,26 @@
+package com.otavio.aifoodapp.dto;
+
+import java.time.LocalDate;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.FoodGroup;
+
+/**
+ * Scalar row of tb_food_item for read-only listings, selected with a JPQL constructor expression
+ * so no managed entity (nor its snapshot) is created. Tags are loaded separately.
+ */
+public record FoodItemSummary(
+        Long id,
+        String name,
+        Integer quantity,
+        LocalDate expiration,
+        Double calories,
+        Double protein,
+        Double fat,
+        Double carbohydrates,
+        Double fiber,
+        Double sugar,
+        Double sodium,
+        FoodGroup foodGroup,
+        EnrichmentStatus enrichmentStatus
+) {}
@@ -0,0 +1,11 @@
+package com.otavio.aifoodapp.dto;
+
+import java.util.List;
+
+/**
+ * One page of the pantry listing; nextCursor is null on the last page
+ */
+public record FoodPageDto(
+        List<FoodDto> items,
+        String nextCursor
+) {}
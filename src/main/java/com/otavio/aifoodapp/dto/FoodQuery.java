@@ -0,0 +1,25 @@
+package com.otavio.aifoodapp.dto;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.otavio.aifoodapp.enums.FoodGroup;
+
+/**
+ * Filters of the paginated pantry listing, bound from query parameters. Every filter is optional
+ */
+public record FoodQuery(
+        FoodGroup foodGroup,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresTo,
+        String name,
+        Double minCalories,
+        Double maxCalories,
+        Double minProtein,
+        Double maxProtein,
+        Double minCarbohydrates,
+        Double maxCarbohydrates,
+        Double minFat,
+        Double maxFat
+) {}
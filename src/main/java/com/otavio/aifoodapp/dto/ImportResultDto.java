@@ -0,0 +1,24 @@
+package com.otavio.aifoodapp.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk pantry import. Only the first rejected rows are listed (errorsTruncated tells when more were left out).
+ * failure is set when the import stopped early (unreadable upload or a chunk that failed to load);
+ * the counts then cover what was imported up to that point
+ */
+public record ImportResultDto(
+        long imported,
+        long rejected,
+        long enrichmentQueued,
+        List<RowError> errors,
+        boolean errorsTruncated,
+        RowError failure
+) {
+
+    /**
+     * @param line line of the input the rejected row starts on (1 is the CSV header)
+     */
+    public record RowError(long line, String message) {
+    }
+}
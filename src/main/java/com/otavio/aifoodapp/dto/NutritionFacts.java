@@ -0,0 +1,62 @@
+package com.otavio.aifoodapp.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.FoodGroup;
+import com.otavio.aifoodapp.model.FoodItem;
+
+public record NutritionFacts(
+        Double calories,
+        Double protein,
+        Double fat,
+        Double carbohydrates,
+        Double fiber,
+        Double sugar,
+        Double sodium,
+        FoodGroup foodGroup,
+        List<String> tags
+) {
+
+    /**
+     * Scale the numeric facts, used when a cached entry was computed for another quantity
+     */
+    public NutritionFacts scaled(double factor) {
+        if (factor == 1.0) {
+            return this;
+        }
+        return new NutritionFacts(
+                scale(calories, factor),
+                scale(protein, factor),
+                scale(fat, factor),
+                scale(carbohydrates, factor),
+                scale(fiber, factor),
+                scale(sugar, factor),
+                scale(sodium, factor),
+                foodGroup,
+                tags
+        );
+    }
+
+    public FoodItem applyTo(FoodItem foodItem) {
+        foodItem.setCalories(calories);
+        foodItem.setProtein(protein);
+        foodItem.setFat(fat);
+        foodItem.setCarbohydrates(carbohydrates);
+        foodItem.setFiber(fiber);
+        foodItem.setSugar(sugar);
+        foodItem.setSodium(sodium);
+        if (foodGroup != null) {
+            foodItem.setFoodGroup(foodGroup);
+        }
+        // Mutable copy, Hibernate replaces the collection on flush
+        foodItem.setTags(tags != null ? new ArrayList<>(tags) : new ArrayList<>());
+        foodItem.setEnrichmentStatus(EnrichmentStatus.COMPLETE);
+        return foodItem;
+    }
+
+    private static Double scale(Double value, double factor) {
+        return value != null ? value * factor : null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.otavio.aifoodapp.dto;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous recipe job. result is a list of recipes for GENERATE and the analysis text for ANALYZE;
+ * error is a code (ai_service_unavailable, deadline_exceeded, job_failed) when the job failed
+ */
+public record RecipeJobDto(
+        String id,
+        String type,
+        String status,
+        Object result,
+        String error,
+        Instant createdAt,
+        Instant finishedAt
+) {}
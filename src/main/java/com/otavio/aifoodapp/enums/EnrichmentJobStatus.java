@@ -0,0 +1,10 @@
+package com.otavio.aifoodapp.enums;
+
+/**
+ * State of a row in the enrichment job queue (tb_enrichment_job). Finished jobs are deleted
+ */
+public enum EnrichmentJobStatus {
+    PENDING,     // Waiting for a worker, from available_at on
+    PROCESSING,  // Claimed by a worker until locked_until, then claimable again
+    DEAD         // Gave up after the maximum number of attempts
+}
@@ -0,0 +1,12 @@
+package com.otavio.aifoodapp.enums;
+
+/**
+ * Result of the AI enrichment step for a single food item
+ */
+public enum EnrichmentOutcome {
+    ENRICHED,   // Nutrition facts determined by the AI (or the nutrition cache)
+    TIMED_OUT,  // Per-item timeout elapsed, item saved without nutrition facts
+    DEFERRED,   // AI backend unavailable (circuit open / overloaded), item saved without nutrition facts
+    FALLBACK,   // AI failed or returned an unusable answer, item saved without nutrition facts
+    NOT_SAVED   // The item's save batch failed and was rolled back, item not stored
+}
@@ -0,0 +1,11 @@
+package com.otavio.aifoodapp.enums;
+
+/**
+ * Persisted enrichment state of a food item
+ */
+public enum EnrichmentStatus {
+    COMPLETE,   // Nutrition facts filled in
+    PENDING,    // Saved without calling the AI, queued for enrichment
+    PARTIAL,    // Enrichment ran out of budget or the AI was unavailable, queued for another try
+    FAILED      // The enrichment job was dead-lettered after the maximum number of attempts
+}
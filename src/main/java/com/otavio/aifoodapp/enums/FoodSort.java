@@ -0,0 +1,50 @@
+package com.otavio.aifoodapp.enums;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import com.otavio.aifoodapp.dto.FoodItemSummary;
+
+/**
+ * Sort options of the paginated pantry listing. Each sort key is backed by a (user_id, key, id) index
+ * (see V16) and is never NULL, so pages can be cut with a (key, id) row comparison.
+ */
+public enum FoodSort {
+    EXPIRATION("expiration", FoodItemSummary::expiration, LocalDate::parse),
+    NAME("name", FoodItemSummary::name, value -> value),
+    CALORIES("COALESCE(calories, -1)", summary -> orUnknown(summary.calories()), Double::valueOf),
+    PROTEIN("COALESCE(protein, -1)", summary -> orUnknown(summary.protein()), Double::valueOf),
+    CREATED("id", FoodItemSummary::id, Long::valueOf);
+
+    private final String sortKey;
+    private final Function<FoodItemSummary, Object> keyOf;
+    private final Function<String, Object> parser;
+
+    FoodSort(String sortKey, Function<FoodItemSummary, Object> keyOf, Function<String, Object> parser) {
+        this.sortKey = sortKey;
+        this.keyOf = keyOf;
+        this.parser = parser;
+    }
+
+    /**
+     * @return the SQL expression rows are ordered by
+     */
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public Object keyOf(FoodItemSummary summary) {
+        return keyOf.apply(summary);
+    }
+
+    /**
+     * Parse a key written into a cursor back into the type bound against the sort key
+     */
+    public Object parseKey(String value) {
+        return parser.apply(value);
+    }
+
+    private static Double orUnknown(Double value) {
+        return value != null ? value : -1.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.otavio.aifoodapp.enums;
+
+/**
+ * Prompt templates whose answers are kept in the AI response store, each with its own TTL
+ */
+public enum PromptTemplate {
+    RECIPE_ANALYSIS("recipe-analysis"),
+    NUTRITION_FACTS("nutrition-facts");
+
+    private final String id;
+
+    PromptTemplate(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,8 @@
+package com.otavio.aifoodapp.enums;
+
+public enum RecipeJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.otavio.aifoodapp.enums;
+
+public enum RecipeJobType {
+    GENERATE,   // Recipes for the user's pantry, as /api/recipes/gen
+    ANALYZE     // Nutritional analysis of a recipe, as /api/recipes/analyze/{id}
+}
@@ -0,0 +1,26 @@
+package com.otavio.aifoodapp.exception;
+
+import java.time.Duration;
+
+/**
+ * The AI backend can't serve the request right now (circuit open, concurrency limit reached or upstream failure).
+ * Mapped to 503 with a Retry-After header.
+ */
+public class AiServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AiServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public AiServiceUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
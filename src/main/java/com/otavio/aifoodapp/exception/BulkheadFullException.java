@@ -0,0 +1,20 @@
+package com.otavio.aifoodapp.exception;
+
+import java.time.Duration;
+
+/**
+ * A bounded execution lane (see Bulkhead) has no room for the call. Mapped to 503 with a Retry-After header.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public BulkheadFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,94 @@
+package com.otavio.aifoodapp.filter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives each API request a deadline budget.
+ * Recipe generation and analysis wait on long Maritaca completions, so their routes get a larger budget
+ * (app.deadline.generation-ms) than the rest of the API.
+ * Clients may ask for a shorter (or longer, up to the max) budget with the X-Request-Timeout-Ms header.
+ */
+@Component
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+    private final Duration generationBudget;
+    private final List<String> generationRoutes;
+
+    public RequestDeadlineFilter(@Value("${app.deadline.default-ms:20000}") long defaultBudgetMs,
+                                 @Value("${app.deadline.max-ms:60000}") long maxBudgetMs,
+                                 @Value("${app.deadline.generation-ms:60000}") long generationBudgetMs,
+                                 @Value("${app.deadline.generation-routes:/api/recipes/gen,/api/recipes/gen/stream,/api/recipes/analyze/*}")
+                                 List<String> generationRoutes) {
+        this.defaultBudget = Duration.ofMillis(defaultBudgetMs);
+        this.maxBudget = Duration.ofMillis(Math.max(maxBudgetMs, generationBudgetMs));
+        this.generationBudget = Duration.ofMillis(generationBudgetMs);
+        this.generationRoutes = generationRoutes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestDeadline.set(RequestDeadline.after(resolveBudget(request)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    private Duration resolveBudget(HttpServletRequest request) {
+        Duration routeBudget = routeBudget(request);
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header == null || header.isBlank()) {
+            return routeBudget;
+        }
+        try {
+            long requested = Long.parseLong(header.trim());
+            if (requested <= 0) {
+                return routeBudget;
+            }
+            Duration budget = Duration.ofMillis(requested);
+            return budget.compareTo(maxBudget) > 0 ? maxBudget : budget;
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid {} header: {}", TIMEOUT_HEADER, header);
+            return routeBudget;
+        }
+    }
+
+    private Duration routeBudget(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String route : generationRoutes) {
+            if (pathMatcher.match(route, path)) {
+                return generationBudget;
+            }
+        }
+        return defaultBudget;
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.stereotype.Component;
 
 import com.otavio.aifoodapp.dto.FoodDto;
 import com.otavio.aifoodapp.dto.FoodItemCreateDto;
+import com.otavio.aifoodapp.dto.FoodItemSummary;
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
 import com.otavio.aifoodapp.enums.FoodGroup;
 import com.otavio.aifoodapp.model.FoodItem;
 import com.otavio.aifoodapp.model.User;
@@ -27,6 +29,7 @@ public class FoodMapper {
         foodItem.setSodium(foodDto.sodium());
         foodItem.setFoodGroup(foodDto.foodGroup() != null ? FoodGroup.valueOf(foodDto.foodGroup()) : null);
         foodItem.setTags(foodDto.tags() != null ? List.of(foodDto.tags().split(",")) : new ArrayList<>());
+        foodItem.setEnrichmentStatus(foodDto.enrichmentStatus() != null ? EnrichmentStatus.valueOf(foodDto.enrichmentStatus()) : null);
         return foodItem;
     }
 
@@ -59,7 +62,27 @@ public class FoodMapper {
             foodItem.getSugar(),
             foodItem.getSodium(),
             foodItem.getFoodGroup() != null ? foodItem.getFoodGroup().name() : null,
-            foodItem.getTags() != null ? String.join(",", foodItem.getTags()) : ""
+            foodItem.getTags() != null ? String.join(",", foodItem.getTags()) : "",
+            foodItem.getEnrichmentStatus() != null ? foodItem.getEnrichmentStatus().name() : null
+        );
+    }
+
+    public FoodDto map(FoodItemSummary summary, List<String> tags) {
+        return new FoodDto(
+            summary.id(),
+            summary.name(),
+            summary.quantity(),
+            summary.expiration(),
+            summary.calories(),
+            summary.protein(),
+            summary.fat(),
+            summary.carbohydrates(),
+            summary.fiber(),
+            summary.sugar(),
+            summary.sodium(),
+            summary.foodGroup() != null ? summary.foodGroup().name() : null,
+            String.join(",", tags),
+            summary.enrichmentStatus() != null ? summary.enrichmentStatus().name() : null
         );
     }
 }
@@ -0,0 +1,112 @@
+package com.otavio.aifoodapp.mapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.enums.FoodGroup;
+
+/**
+ * Parses the nutrition JSON returned by the LLM, both the single-item object
+ * and the index-keyed array used by batched lookups
+ */
+@Component
+public class NutritionMapper {
+
+    private static final Logger logger = LoggerFactory.getLogger(NutritionMapper.class);
+    private final ObjectMapper objectMapper;
+
+    public NutritionMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<NutritionFacts> parseNutritionFromJson(String jsonResponse) {
+        try {
+            JsonNode jsonNode = objectMapper.readTree(stripMarkdown(jsonResponse));
+            return Optional.of(toNutritionFacts(jsonNode));
+        } catch (JsonProcessingException e) {
+            logger.warn("Error parsing nutrition json: {}", e.getOriginalMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Parse a JSON array of nutrition objects, each carrying the "index" of the item it answers
+     * @return facts by item index, items the model omitted are simply absent
+     */
+    public Map<Integer, NutritionFacts> parseIndexedNutritionFromJson(String jsonResponse) {
+        try {
+            JsonNode root = objectMapper.readTree(stripMarkdown(jsonResponse));
+            if (!root.isArray()) {
+                return Collections.emptyMap();
+            }
+            Map<Integer, NutritionFacts> result = new HashMap<>();
+            for (JsonNode node : root) {
+                if (node.has("index") && node.get("index").canConvertToInt()) {
+                    result.put(node.get("index").asInt(), toNutritionFacts(node));
+                }
+            }
+            return result;
+        } catch (JsonProcessingException e) {
+            logger.warn("Error parsing batched nutrition json: {}", e.getOriginalMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private NutritionFacts toNutritionFacts(JsonNode jsonNode) {
+        // Set food group
+        FoodGroup foodGroup = null;
+        if (jsonNode.has("foodGroup")) {
+            String foodGroupStr = jsonNode.get("foodGroup").asText();
+            try {
+                foodGroup = FoodGroup.valueOf(foodGroupStr);
+            } catch (IllegalArgumentException e) {
+                // Default to GRAINS if the food group is invalid
+                foodGroup = FoodGroup.GRAINS;
+            }
+        }
+
+        // Set tags
+        List<String> tags = Collections.emptyList();
+        if (jsonNode.has("tags") && jsonNode.get("tags").isArray()) {
+            tags = objectMapper.convertValue(jsonNode.get("tags"),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+        }
+
+        return new NutritionFacts(
+                jsonNode.has("calories") ? jsonNode.get("calories").asDouble() : null,
+                jsonNode.has("protein") ? jsonNode.get("protein").asDouble() : null,
+                jsonNode.has("fat") ? jsonNode.get("fat").asDouble() : null,
+                jsonNode.has("carbohydrates") ? jsonNode.get("carbohydrates").asDouble() : null,
+                jsonNode.has("fiber") ? jsonNode.get("fiber").asDouble() : null,
+                jsonNode.has("sugar") ? jsonNode.get("sugar").asDouble() : null,
+                jsonNode.has("sodium") ? jsonNode.get("sodium").asDouble() : null,
+                foodGroup,
+                tags
+        );
+    }
+
+    // Clean the JSON string if needed (e.g., removing markdown formatting)
+    private String stripMarkdown(String jsonResponse) {
+        String cleanedJson = jsonResponse.trim();
+        if (cleanedJson.startsWith("```json")) {
+            cleanedJson = cleanedJson.substring(7);
+        } else if (cleanedJson.startsWith("```")) {
+            cleanedJson = cleanedJson.substring(3);
+        }
+        if (cleanedJson.endsWith("```")) {
+            cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
+        }
+        return cleanedJson.trim();
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -60,6 +61,19 @@ public class RecipeMapper {
         }
     }
 
+    /**
+     * Parse a single recipe object, used when recipes are streamed one by one
+     */
+    public Optional<Recipe> parseSingleRecipeFromJson(String recipeJson) {
+        try {
+            AiRecipeDTO dto = objectMapper.readValue(recipeJson, AiRecipeDTO.class);
+            return Optional.of(mapDtoToEntity(dto));
+        } catch (Exception e) {
+            logger.error("Error parsing the recipe json: {} ", recipeJson, e);
+            return Optional.empty();
+        }
+    }
+
     private Recipe mapDtoToEntity(AiRecipeDTO dto) {
         Recipe recipe = new Recipe();
         recipe.setName(dto.dishName);
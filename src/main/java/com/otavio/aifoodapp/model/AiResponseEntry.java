@@ -0,0 +1,41 @@
+package com.otavio.aifoodapp.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored LLM answer, keyed by the hash of the prompt template id plus its inputs
+ */
+@Entity
+@Table(name = "tb_ai_response_store")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiResponseEntry {
+
+    @Id
+    @Column(name = "prompt_hash")
+    private String promptHash;
+
+    @Column(name = "template_id")
+    private String templateId;
+
+    // Set for answers about a recipe, so they can be dropped when the recipe changes
+    @Column(name = "recipe_id")
+    private Long recipeId;
+
+    private String response;
+
+    @Column(name = "refreshed_at")
+    private OffsetDateTime refreshedAt;
+
+    @Column(name = "expires_at")
+    private OffsetDateTime expiresAt;
+}
@@ -0,0 +1,60 @@
+package com.otavio.aifoodapp.model;
+
+import java.time.OffsetDateTime;
+
+import com.otavio.aifoodapp.enums.EnrichmentJobStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Queued AI enrichment of a food item, written in the same transaction as the item (outbox)
+ */
+@Entity
+@Table(name = "tb_enrichment_job")
+@Data
+@NoArgsConstructor
+public class EnrichmentJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "food_item_id")
+    private Long foodItemId;
+
+    @Enumerated(EnumType.STRING)
+    private EnrichmentJobStatus status;
+
+    private int attempts;
+
+    @Column(name = "available_at")
+    private OffsetDateTime availableAt;
+
+    @Column(name = "locked_until")
+    private OffsetDateTime lockedUntil;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    public static EnrichmentJob pending(Long foodItemId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        EnrichmentJob job = new EnrichmentJob();
+        job.setFoodItemId(foodItemId);
+        job.setStatus(EnrichmentJobStatus.PENDING);
+        job.setAvailableAt(now);
+        job.setCreatedAt(now);
+        return job;
+    }
+}
@@ -4,6 +4,7 @@ package com.otavio.aifoodapp.model;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
 import com.otavio.aifoodapp.enums.FoodGroup;
 
 import jakarta.persistence.CollectionTable;
@@ -18,6 +19,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -29,9 +31,9 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class FoodItem {
 
-
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_item_seq")
+    @SequenceGenerator(name = "food_item_seq", sequenceName = "tb_food_item_id_seq", allocationSize = IdAllocation.BLOCK_SIZE)
     private Long id;
     private String name;
     private Integer quantity;
@@ -51,6 +53,14 @@ public class FoodItem {
     private FoodGroup foodGroup;
 
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "enrichment_status")
+    // PARTIAL quando salvo sem dados nutricionais, completado em background
+    private EnrichmentStatus enrichmentStatus;
+
+    @Column(name = "enrichment_attempts")
+    private int enrichmentAttempts;
+
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "tb_food_tems_tags", joinColumns = @JoinColumn(name = "food_item_id"))  
     @Column(name = "tag")
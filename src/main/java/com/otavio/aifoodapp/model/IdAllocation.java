@@ -0,0 +1,14 @@
+package com.otavio.aifoodapp.model;
+
+/**
+ * Id allocation of the entities on pooled sequences: FoodItem, Recipe and RecipeIngredient
+ */
+public final class IdAllocation {
+
+    // Ids come in blocks of this size: it must match V17's INCREMENT BY.
+    // Bulk loads reserving ids by hand must use the same size
+    public static final int BLOCK_SIZE = 50;
+
+    private IdAllocation() {
+    }
+}
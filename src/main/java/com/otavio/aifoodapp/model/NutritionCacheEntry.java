@@ -0,0 +1,58 @@
+package com.otavio.aifoodapp.model;
+
+import java.time.OffsetDateTime;
+
+import com.otavio.aifoodapp.enums.FoodGroup;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Persistent tier of the nutrition facts cache, keyed by canonical food name + quantity bucket
+ */
+@Entity
+@Table(name = "tb_nutrition_cache")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NutritionCacheEntry {
+
+    @Id
+    @Column(name = "cache_key")
+    private String cacheKey;
+
+    @Column(name = "canonical_name")
+    private String canonicalName;
+
+    @Column(name = "quantity_bucket")
+    private Integer quantityBucket;
+
+    // Quantity the LLM answered for, cached values are scaled from it
+    @Column(name = "source_quantity")
+    private Integer sourceQuantity;
+
+    private Double calories;
+    private Double protein;
+    private Double fat;
+    private Double carbohydrates;
+    private Double fiber;
+    private Double sugar;
+    private Double sodium;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "food_group")
+    private FoodGroup foodGroup;
+
+    // Comma separated, same format as FoodDto.tags
+    private String tags;
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+}
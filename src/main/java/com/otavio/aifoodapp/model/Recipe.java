@@ -20,7 +20,8 @@ import lombok.NoArgsConstructor;
 public class Recipe {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+    @SequenceGenerator(name = "recipe_seq", sequenceName = "tb_recipes_id_seq", allocationSize = IdAllocation.BLOCK_SIZE)
     private Long id;
 
 
@@ -42,6 +43,11 @@ public class Recipe {
     private List<String> nutritionalInfo;
 
 
+    // Owner of the recipe, set when it is generated for a user's pantry
+    @Column(name = "user_id")
+    private Long userId;
+
+
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<RecipeIngredient> ingredientsList = new HashSet<>();
 
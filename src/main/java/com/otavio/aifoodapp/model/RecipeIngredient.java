@@ -6,8 +6,8 @@ import jakarta.persistence.*;
 @Table(name = "tb_recipe_ingredients")
 public class RecipeIngredient {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_ingredient_seq")
+    @SequenceGenerator(name = "recipe_ingredient_seq", sequenceName = "tb_recipe_ingredients_id_seq", allocationSize = IdAllocation.BLOCK_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
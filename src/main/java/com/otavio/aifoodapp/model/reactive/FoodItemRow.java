@@ -0,0 +1,64 @@
+package com.otavio.aifoodapp.model.reactive;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.FoodGroup;
+import com.otavio.aifoodapp.model.FoodItem;
+
+/**
+ * R2DBC view of tb_food_item for the reactive stack; tags live in their own table (see ReactiveFoodItemRepository)
+ */
+@Table("tb_food_item")
+public record FoodItemRow(
+        @Id Long id,
+        String name,
+        Integer quantity,
+        LocalDate expiration,
+        Double calories,
+        Double protein,
+        Double fat,
+        Double carbohydrates,
+        Double fiber,
+        Double sugar,
+        Double sodium,
+        FoodGroup foodGroup,
+        EnrichmentStatus enrichmentStatus,
+        int enrichmentAttempts,
+        Long userId
+) {
+
+    public static FoodItemRow from(FoodItem item, Long userId) {
+        return new FoodItemRow(item.getId(), item.getName(), item.getQuantity(), item.getExpiration(),
+                item.getCalories(), item.getProtein(), item.getFat(), item.getCarbohydrates(),
+                item.getFiber(), item.getSugar(), item.getSodium(), item.getFoodGroup(),
+                item.getEnrichmentStatus(), item.getEnrichmentAttempts(), userId);
+    }
+
+    /**
+     * Detached FoodItem, so the AI services and mappers shared with the servlet stack can be reused
+     */
+    public FoodItem toFoodItem(List<String> tags) {
+        FoodItem item = new FoodItem();
+        item.setId(id);
+        item.setName(name);
+        item.setQuantity(quantity);
+        item.setExpiration(expiration);
+        item.setCalories(calories);
+        item.setProtein(protein);
+        item.setFat(fat);
+        item.setCarbohydrates(carbohydrates);
+        item.setFiber(fiber);
+        item.setSugar(sugar);
+        item.setSodium(sodium);
+        item.setFoodGroup(foodGroup);
+        item.setEnrichmentStatus(enrichmentStatus);
+        item.setEnrichmentAttempts(enrichmentAttempts);
+        item.setTags(tags);
+        return item;
+    }
+}
@@ -0,0 +1,6 @@
+package com.otavio.aifoodapp.model.reactive;
+
+public record FoodItemTagRow(
+        Long foodItemId,
+        String tag
+) {}
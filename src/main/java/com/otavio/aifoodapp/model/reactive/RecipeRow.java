@@ -0,0 +1,34 @@
+package com.otavio.aifoodapp.model.reactive;
+
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.otavio.aifoodapp.model.Recipe;
+
+/**
+ * R2DBC view of tb_recipes; instructions, nutritional info and ingredients are read through ReactiveRecipeRepository
+ */
+@Table("tb_recipes")
+public record RecipeRow(
+        @Id Long id,
+        String name,
+        String description,
+        int quantity,
+        Long userId
+) {
+
+    public static RecipeRow from(Recipe recipe, Long userId) {
+        return new RecipeRow(recipe.getId(), recipe.getName(), recipe.getDescription(), recipe.getQuantity(), userId);
+    }
+
+    public Recipe toRecipe(List<String> instructions, List<String> nutritionalInfo) {
+        Recipe recipe = new Recipe(name, description, instructions, nutritionalInfo);
+        recipe.setId(id);
+        recipe.setQuantity(quantity);
+        // Same value the servlet stack gets for AI-generated recipes, so both stacks share analysis prompts
+        recipe.setExpiration("");
+        return recipe;
+    }
+}
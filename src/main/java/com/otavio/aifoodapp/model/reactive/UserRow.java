@@ -0,0 +1,14 @@
+package com.otavio.aifoodapp.model.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Just enough of tb_users to resolve the authenticated user's id without JPA
+ */
+@Table("tb_users")
+public record UserRow(
+        @Id Long id,
+        String login,
+        String email
+) {}
@@ -0,0 +1,19 @@
+package com.otavio.aifoodapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.otavio.aifoodapp.model.AiResponseEntry;
+
+@Repository
+public interface AiResponseRepository extends JpaRepository<AiResponseEntry, String> {
+
+    @Modifying
+    @Transactional
+    @Query("delete from AiResponseEntry e where e.recipeId = :recipeId")
+    int deleteByRecipeId(@Param("recipeId") Long recipeId);
+}
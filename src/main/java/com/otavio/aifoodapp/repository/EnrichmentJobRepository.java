@@ -0,0 +1,77 @@
+package com.otavio.aifoodapp.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.otavio.aifoodapp.enums.EnrichmentJobStatus;
+import com.otavio.aifoodapp.model.EnrichmentJob;
+
+@Repository
+public interface EnrichmentJobRepository extends JpaRepository<EnrichmentJob, Long> {
+
+    /**
+     * Jobs that are due, plus claimed jobs whose lease ran out (worker died).
+     * SKIP LOCKED lets several replicas claim concurrently without waiting on or double-taking each other's rows
+     */
+    @Query(value = """
+            SELECT * FROM tb_enrichment_job
+            WHERE (status = 'PENDING' AND available_at <= NOW())
+               OR (status = 'PROCESSING' AND locked_until < NOW())
+            ORDER BY available_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EnrichmentJob> findClaimable(@Param("limit") int limit);
+
+    /**
+     * Queue a job for each of the given food items in one statement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_enrichment_job (food_item_id) SELECT id FROM tb_food_item WHERE id IN (:foodItemIds)",
+            nativeQuery = true)
+    int insertPending(@Param("foodItemIds") Collection<Long> foodItemIds);
+
+    /**
+     * Release a job held by the claim that brought its attempts to the given count
+     * @return 0 when the job was claimed again since
+     */
+    @Modifying
+    @Query("""
+            update EnrichmentJob j
+            set j.status = :status, j.availableAt = :availableAt, j.lockedUntil = null, j.lastError = :lastError
+            where j.id = :id
+              and j.status = com.otavio.aifoodapp.enums.EnrichmentJobStatus.PROCESSING
+              and j.attempts = :attempts
+            """)
+    int release(@Param("id") Long id,
+                @Param("attempts") int attempts,
+                @Param("status") EnrichmentJobStatus status,
+                @Param("availableAt") OffsetDateTime availableAt,
+                @Param("lastError") String lastError);
+
+    /**
+     * Delete a completed job, fenced on its claim like release()
+     */
+    @Modifying
+    @Query("""
+            delete from EnrichmentJob j
+            where j.id = :id
+              and j.status = com.otavio.aifoodapp.enums.EnrichmentJobStatus.PROCESSING
+              and j.attempts = :attempts
+            """)
+    int deleteClaimed(@Param("id") Long id, @Param("attempts") int attempts);
+
+    long countByStatusIn(Collection<EnrichmentJobStatus> statuses);
+
+    long countByStatus(EnrichmentJobStatus status);
+
+    @Query("select min(j.createdAt) from EnrichmentJob j where j.status <> :status")
+    OffsetDateTime findOldestCreatedAtExcluding(@Param("status") EnrichmentJobStatus status);
+}
@@ -0,0 +1,59 @@
+package com.otavio.aifoodapp.repository;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Forward-only reads for the export endpoints. Rows are handed to the callback one at a time;
+ * with a fetch size inside a transaction the PostgreSQL driver reads through a server-side cursor
+ * instead of loading the whole result. Child collections come back as arrays on the same row.
+ */
+@Repository
+public class ExportRepository {
+
+    private static final String FOOD_ITEMS_SQL = """
+            SELECT f.id, f.name, f.quantity, f.expiration, f.calories, f.protein, f.fat, f.carbohydrates,
+                   f.fiber, f.sugar, f.sodium, f.food_group, f.enrichment_status,
+                   ARRAY(SELECT t.tag FROM tb_food_tems_tags t WHERE t.food_item_id = f.id) AS tags
+            FROM tb_food_item f
+            WHERE f.user_id = ?
+            ORDER BY f.id""";
+
+    private static final String RECIPES_SQL = """
+            SELECT r.id, r.name, r.description, r.quantity,
+                   ARRAY(SELECT i.instruction FROM tb_recipe_instructions i
+                         WHERE i.recipe_id = r.id ORDER BY i.step_order) AS instructions,
+                   ARRAY(SELECT fi.name || ': ' || ri.quantity || COALESCE(' ' || ri.unit, '')
+                         FROM tb_recipe_ingredients ri JOIN tb_food_item fi ON fi.id = ri.food_item_id
+                         WHERE ri.recipe_id = r.id ORDER BY ri.id) AS ingredients,
+                   ARRAY(SELECT n.nutritional_info FROM tb_recipes_nutritional_info n WHERE n.recipe_id = r.id) AS nutritional_info
+            FROM tb_recipes r
+            WHERE r.user_id = ?
+            ORDER BY r.id""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExportRepository(DataSource dataSource, @Value("${app.export.fetch-size:500}") int fetchSize) {
+        // Own template so the fetch size doesn't leak into the shared one
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Must run inside a transaction for the driver to use a cursor
+     */
+    public void streamFoodItems(Long userId, RowCallbackHandler handler) {
+        jdbcTemplate.query(FOOD_ITEMS_SQL, handler, userId);
+    }
+
+    /**
+     * Must run inside a transaction for the driver to use a cursor
+     */
+    public void streamRecipes(Long userId, RowCallbackHandler handler) {
+        jdbcTemplate.query(RECIPES_SQL, handler, userId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.otavio.aifoodapp.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import com.otavio.aifoodapp.model.IdAllocation;
+
+/**
+ * Bulk writes of food items through the COPY protocol of the PostgreSQL driver.
+ * Ids are reserved from the table's sequence up front so tag rows can reference their items in the same load.
+ * Both copies join the caller's transaction.
+ */
+@Repository
+public class FoodItemCopyRepository {
+
+    private static final String COPY_FOOD_ITEMS = """
+            COPY tb_food_item (id, name, quantity, expiration, calories, protein, fat, carbohydrates,
+                               fiber, sugar, sodium, food_group, enrichment_status, enrichment_attempts, user_id)
+            FROM STDIN WITH (FORMAT csv)""";
+
+    private static final String COPY_TAGS = "COPY tb_food_tems_tags (food_item_id, tag) FROM STDIN WITH (FORMAT csv)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FoodItemCopyRepository(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserve ids the way Hibernate's pooled-lo optimizer does: each nextval owns the block
+     * [value, value + BLOCK_SIZE), so one sequence call covers BLOCK_SIZE rows
+     * @return count fresh ids for tb_food_item, in one round trip
+     */
+    public List<Long> reserveIds(int count) {
+        int blocks = (count + IdAllocation.BLOCK_SIZE - 1) / IdAllocation.BLOCK_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(
+                "SELECT nextval('tb_food_item_id_seq') FROM generate_series(1, ?)", Long.class, blocks);
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockStart : blockStarts) {
+            for (int offset = 0; offset < IdAllocation.BLOCK_SIZE && ids.size() < count; offset++) {
+                ids.add(blockStart + offset);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @param csv rows in COPY's csv format, columns as in COPY_FOOD_ITEMS
+     * @return rows written
+     */
+    public long copyFoodItems(String csv) {
+        return copy(COPY_FOOD_ITEMS, csv);
+    }
+
+    /**
+     * @param csv (food_item_id, tag) rows in COPY's csv format
+     * @return rows written
+     */
+    public long copyTags(String csv) {
+        return copy(COPY_TAGS, csv);
+    }
+
+    private long copy(String sql, String csv) {
+        if (csv.isEmpty()) {
+            return 0;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv));
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("COPY failed: " + e.getMessage(), e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
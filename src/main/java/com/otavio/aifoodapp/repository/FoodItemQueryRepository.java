@@ -0,0 +1,139 @@
+package com.otavio.aifoodapp.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.otavio.aifoodapp.dto.FoodItemSummary;
+import com.otavio.aifoodapp.dto.FoodQuery;
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.FoodGroup;
+import com.otavio.aifoodapp.enums.FoodSort;
+
+/**
+ * Keyset-paginated, filtered reads of tb_food_item in plain SQL.
+ * Pages are cut with a (sort key, id) row comparison against the last row served, so any page costs
+ * one index range scan of limit rows, however deep the cursor is.
+ */
+@Repository
+public class FoodItemQueryRepository {
+
+    private static final String SELECT_COLUMNS = """
+            SELECT id, name, quantity, expiration, calories, protein, fat, carbohydrates,
+                   fiber, sugar, sodium, food_group, enrichment_status
+            FROM tb_food_item
+            WHERE user_id = :userId""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public FoodItemQueryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param afterKey sort key of the last row of the previous page, null for the first page
+     * @param afterId id of the last row of the previous page, null for the first page
+     */
+    public List<FoodItemSummary> findPage(Long userId, FoodQuery query, FoodSort sort, Sort.Direction direction,
+                                          Object afterKey, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+
+        if (query.foodGroup() != null) {
+            sql.append(" AND food_group = :foodGroup");
+            params.addValue("foodGroup", query.foodGroup().name());
+        }
+        if (query.expiresFrom() != null) {
+            sql.append(" AND expiration >= :expiresFrom");
+            params.addValue("expiresFrom", query.expiresFrom());
+        }
+        if (query.expiresTo() != null) {
+            sql.append(" AND expiration <= :expiresTo");
+            params.addValue("expiresTo", query.expiresTo());
+        }
+        if (query.name() != null && !query.name().isBlank()) {
+            // Served by the trigram index
+            sql.append(" AND name ILIKE :namePattern");
+            params.addValue("namePattern", "%" + escapeLike(query.name().trim()) + "%");
+        }
+        range(sql, params, "calories", query.minCalories(), query.maxCalories());
+        range(sql, params, "protein", query.minProtein(), query.maxProtein());
+        range(sql, params, "carbohydrates", query.minCarbohydrates(), query.maxCarbohydrates());
+        range(sql, params, "fat", query.minFat(), query.maxFat());
+
+        String order = direction.isAscending() ? "ASC" : "DESC";
+        if (afterId != null) {
+            sql.append(" AND (").append(sort.getSortKey()).append(", id) ")
+                    .append(direction.isAscending() ? ">" : "<")
+                    .append(" (:afterKey, :afterId)");
+            params.addValue("afterKey", afterKey);
+            params.addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY ").append(sort.getSortKey()).append(' ').append(order)
+                .append(", id ").append(order)
+                .append(" LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> toSummary(rs));
+    }
+
+    /**
+     * Tags of the given items, in one query
+     */
+    public Map<Long, List<String>> findTags(Collection<Long> foodItemIds) {
+        Map<Long, List<String>> tagsByItem = new HashMap<>();
+        if (foodItemIds.isEmpty()) {
+            return tagsByItem;
+        }
+        jdbcTemplate.query("SELECT food_item_id, tag FROM tb_food_tems_tags WHERE food_item_id IN (:ids)",
+                new MapSqlParameterSource("ids", foodItemIds),
+                rs -> {
+                    tagsByItem.computeIfAbsent(rs.getLong("food_item_id"), id -> new ArrayList<>()).add(rs.getString("tag"));
+                });
+        return tagsByItem;
+    }
+
+    private static void range(StringBuilder sql, MapSqlParameterSource params, String column, Double min, Double max) {
+        if (min != null) {
+            sql.append(" AND ").append(column).append(" >= :min_").append(column);
+            params.addValue("min_" + column, min);
+        }
+        if (max != null) {
+            sql.append(" AND ").append(column).append(" <= :max_").append(column);
+            params.addValue("max_" + column, max);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static FoodItemSummary toSummary(ResultSet rs) throws SQLException {
+        String foodGroup = rs.getString("food_group");
+        String enrichmentStatus = rs.getString("enrichment_status");
+        return new FoodItemSummary(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getObject("quantity", Integer.class),
+                rs.getObject("expiration", LocalDate.class),
+                rs.getObject("calories", Double.class),
+                rs.getObject("protein", Double.class),
+                rs.getObject("fat", Double.class),
+                rs.getObject("carbohydrates", Double.class),
+                rs.getObject("fiber", Double.class),
+                rs.getObject("sugar", Double.class),
+                rs.getObject("sodium", Double.class),
+                foodGroup != null ? FoodGroup.valueOf(foodGroup) : null,
+                enrichmentStatus != null ? EnrichmentStatus.valueOf(enrichmentStatus) : null);
+    }
+}
@@ -1,15 +1,45 @@
 package com.otavio.aifoodapp.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.otavio.aifoodapp.dto.FoodItemSummary;
 import com.otavio.aifoodapp.model.FoodItem;
 import com.otavio.aifoodapp.model.User;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     List<FoodItem> findByUser(User user);
     List<FoodItem> findByUserId(Long userId);
+
+    @Query("""
+            select new com.otavio.aifoodapp.dto.FoodItemSummary(
+                f.id, f.name, f.quantity, f.expiration, f.calories, f.protein, f.fat,
+                f.carbohydrates, f.fiber, f.sugar, f.sodium, f.foodGroup, f.enrichmentStatus)
+            from FoodItem f
+            where f.user.id = :userId
+            order by f.id
+            """)
+    List<FoodItemSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * (food item id, tag) pairs of every item the user owns, in one query
+     */
+    @Query("select f.id, t from FoodItem f join f.tags t where f.user.id = :userId")
+    List<Object[]> findTagsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Current state of the item, row-locked until the surrounding transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from FoodItem f where f.id = :id")
+    Optional<FoodItem> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,8 @@
+package com.otavio.aifoodapp.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.otavio.aifoodapp.model.NutritionCacheEntry;
+
+public interface NutritionCacheRepository extends JpaRepository<NutritionCacheEntry, String> {
+}
@@ -0,0 +1,39 @@
+package com.otavio.aifoodapp.repository.reactive;
+
+import java.util.Collection;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.otavio.aifoodapp.model.reactive.FoodItemRow;
+import com.otavio.aifoodapp.model.reactive.FoodItemTagRow;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveFoodItemRepository extends ReactiveCrudRepository<FoodItemRow, Long> {
+
+    Flux<FoodItemRow> findByUserIdOrderByIdAsc(Long userId);
+
+    Mono<FoodItemRow> findByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT food_item_id, tag FROM tb_food_tems_tags WHERE food_item_id IN (:foodItemIds)")
+    Flux<FoodItemTagRow> findTags(@Param("foodItemIds") Collection<Long> foodItemIds);
+
+    @Modifying
+    @Query("INSERT INTO tb_food_tems_tags (food_item_id, tag) VALUES (:foodItemId, :tag)")
+    Mono<Integer> insertTag(@Param("foodItemId") Long foodItemId, @Param("tag") String tag);
+
+    @Modifying
+    @Query("DELETE FROM tb_food_tems_tags WHERE food_item_id = :foodItemId")
+    Mono<Integer> deleteTags(@Param("foodItemId") Long foodItemId);
+
+    /**
+     * Same row the Postgres EnrichmentJobTransport writes, so the EnrichmentWorker picks it up
+     */
+    @Modifying
+    @Query("INSERT INTO tb_enrichment_job (food_item_id) VALUES (:foodItemId)")
+    Mono<Integer> enqueueEnrichment(@Param("foodItemId") Long foodItemId);
+}
@@ -0,0 +1,31 @@
+package com.otavio.aifoodapp.repository.reactive;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.otavio.aifoodapp.model.reactive.RecipeRow;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveRecipeRepository extends ReactiveCrudRepository<RecipeRow, Long> {
+
+    @Query("SELECT instruction FROM tb_recipe_instructions WHERE recipe_id = :recipeId ORDER BY step_order")
+    Flux<String> findInstructions(@Param("recipeId") Long recipeId);
+
+    @Query("SELECT nutritional_info FROM tb_recipes_nutritional_info WHERE recipe_id = :recipeId ORDER BY id")
+    Flux<String> findNutritionalInfo(@Param("recipeId") Long recipeId);
+
+    @Modifying
+    @Query("INSERT INTO tb_recipe_instructions (recipe_id, step_order, instruction) VALUES (:recipeId, :stepOrder, :instruction)")
+    Mono<Integer> insertInstruction(@Param("recipeId") Long recipeId,
+                                    @Param("stepOrder") int stepOrder,
+                                    @Param("instruction") String instruction);
+
+    @Modifying
+    @Query("INSERT INTO tb_recipes_nutritional_info (recipe_id, nutritional_info) VALUES (:recipeId, :nutritionalInfo)")
+    Mono<Integer> insertNutritionalInfo(@Param("recipeId") Long recipeId,
+                                        @Param("nutritionalInfo") String nutritionalInfo);
+}
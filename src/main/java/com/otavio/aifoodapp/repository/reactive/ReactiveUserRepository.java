@@ -0,0 +1,12 @@
+package com.otavio.aifoodapp.repository.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import com.otavio.aifoodapp.model.reactive.UserRow;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+
+    Mono<UserRow> findFirstByEmailOrLogin(String email, String login);
+}
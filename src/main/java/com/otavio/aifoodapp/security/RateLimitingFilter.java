@@ -46,7 +46,8 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         "/error",
         "/api/auth/status",
         "/api/auth",
-        "/favicon.ico"
+        "/favicon.ico",
+        "/sim/"  // Local Maritaca simulator (maritaca-sim profile), load tests must not be throttled
     );
 
     @Override
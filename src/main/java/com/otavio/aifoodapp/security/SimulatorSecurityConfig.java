@@ -0,0 +1,30 @@
+package com.otavio.aifoodapp.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Open, stateless filter chain for the local Maritaca simulator (/sim/**), checked before the main chain.
+ * Only exists with the "maritaca-sim" profile.
+ */
+@Configuration
+@Profile("maritaca-sim")
+public class SimulatorSecurityConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain simulatorFilterChain(HttpSecurity http) throws Exception {
+        return http
+                .securityMatcher("/sim/**")
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
+                .build();
+    }
+}
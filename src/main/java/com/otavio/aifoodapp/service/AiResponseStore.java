@@ -0,0 +1,136 @@
+package com.otavio.aifoodapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.otavio.aifoodapp.enums.PromptTemplate;
+import com.otavio.aifoodapp.model.AiResponseEntry;
+import com.otavio.aifoodapp.repository.AiResponseRepository;
+import com.otavio.aifoodapp.util.RequestDeadline;
+import com.otavio.aifoodapp.util.SingleFlight;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Persistent store of free-text LLM answers (tb_ai_response_store), keyed by prompt template + inputs.
+ * Fresh entries are served from the database; expired ones are served immediately (stale-while-revalidate)
+ * while a single background refresh per key regenerates them.
+ */
+@Service
+public class AiResponseStore {
+    private static final Logger log = LoggerFactory.getLogger(AiResponseStore.class);
+
+    private final AiResponseRepository aiResponseRepository;
+    private final SingleFlight<String, String> refreshes;
+    private final Map<PromptTemplate, Duration> ttls = new EnumMap<>(PromptTemplate.class);
+    private final Duration refreshBudget;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    public AiResponseStore(AiResponseRepository aiResponseRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.ai-responses.ttl.recipe-analysis-minutes:10080}") long recipeAnalysisTtlMinutes,
+                           @Value("${app.ai-responses.ttl.nutrition-facts-minutes:43200}") long nutritionFactsTtlMinutes,
+                           @Value("${app.ai-responses.refresh-budget-ms:30000}") long refreshBudgetMs) {
+        this.aiResponseRepository = aiResponseRepository;
+        this.refreshes = new SingleFlight<>(meterRegistry, "ai.responses.refresh");
+        this.ttls.put(PromptTemplate.RECIPE_ANALYSIS, Duration.ofMinutes(recipeAnalysisTtlMinutes));
+        this.ttls.put(PromptTemplate.NUTRITION_FACTS, Duration.ofMinutes(nutritionFactsTtlMinutes));
+        this.refreshBudget = Duration.ofMillis(refreshBudgetMs);
+        this.hits = Counter.builder("ai.responses").tag("result", "hit").register(meterRegistry);
+        this.staleHits = Counter.builder("ai.responses").tag("result", "stale").register(meterRegistry);
+        this.misses = Counter.builder("ai.responses").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Return the stored answer for this template and inputs, generating it on a miss
+     * @param recipeId recipe the answer is about, or null
+     * @param generator produces the answer from the LLM
+     */
+    public Mono<String> getOrGenerate(PromptTemplate template, Long recipeId, List<String> inputs,
+                                      Supplier<Mono<String>> generator) {
+        String promptHash = promptHash(template, inputs);
+
+        return Mono.fromCallable(() -> aiResponseRepository.findById(promptHash))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .map(entry -> {
+                    if (entry.getExpiresAt().isAfter(OffsetDateTime.now())) {
+                        hits.increment();
+                    } else {
+                        staleHits.increment();
+                        refreshInBackground(promptHash, template, recipeId, generator);
+                    }
+                    return entry.getResponse();
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    misses.increment();
+                    return refreshes.execute(promptHash, () -> generateAndStore(promptHash, template, recipeId, generator));
+                }));
+    }
+
+    /**
+     * Drop every stored answer about a recipe
+     */
+    public void invalidateRecipe(Long recipeId) {
+        int removed = aiResponseRepository.deleteByRecipeId(recipeId);
+        if (removed > 0) {
+            log.debug("Dropped {} stored AI responses for recipe {}", removed, recipeId);
+        }
+    }
+
+    private void refreshInBackground(String promptHash, PromptTemplate template, Long recipeId,
+                                     Supplier<Mono<String>> generator) {
+        refreshes.execute(promptHash, () -> generateAndStore(promptHash, template, recipeId, generator))
+                // Not bound to the caller's request, the refresh gets its own budget
+                .contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, RequestDeadline.after(refreshBudget)))
+                .subscribe(null, e -> log.warn("Background refresh of {} response failed: {}", template.getId(), e.getMessage()));
+    }
+
+    private Mono<String> generateAndStore(String promptHash, PromptTemplate template, Long recipeId,
+                                          Supplier<Mono<String>> generator) {
+        return generator.get()
+                .filter(response -> !response.isBlank())
+                .flatMap(response -> {
+                    OffsetDateTime now = OffsetDateTime.now();
+                    AiResponseEntry entry = new AiResponseEntry(promptHash, template.getId(), recipeId, response,
+                            now, now.plus(ttls.get(template)));
+                    return Mono.fromCallable(() -> aiResponseRepository.save(entry))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .thenReturn(response);
+                });
+    }
+
+    static String promptHash(PromptTemplate template, List<String> inputs) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(template.getId().getBytes(StandardCharsets.UTF_8));
+        for (String input : inputs) {
+            digest.update((byte) 0);
+            digest.update(String.valueOf(input).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
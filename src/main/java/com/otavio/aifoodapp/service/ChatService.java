@@ -6,14 +6,20 @@ import java.util.List;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.otavio.aifoodapp.config.MaritacaChatClient;
+import com.otavio.aifoodapp.enums.PromptTemplate;
 import com.otavio.aifoodapp.mapper.RecipeMapper;
 import com.otavio.aifoodapp.model.FoodItem;
 import com.otavio.aifoodapp.model.Recipe;
+import com.otavio.aifoodapp.util.Bulkhead;
+import com.otavio.aifoodapp.util.FoodNameNormalizer;
+import com.otavio.aifoodapp.util.JsonArrayStreamSplitter;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 // import java.util.stream.Collectors; // Unused import removed
 
@@ -21,17 +27,41 @@ import reactor.core.publisher.Mono;
 public class ChatService {
     private final MaritacaChatClient maritacaChatClient;
     private final RecipeMapper recipeMapper;
+    private final AiResponseStore aiResponseStore;
+    private final Bulkhead aiBulkhead;
 
 
     @Value("${maritaca.system.prompt}")
     private String systemPrompt;
 
-    public ChatService(MaritacaChatClient maritacaChatClient, RecipeMapper recipeMapper) {
+    public ChatService(MaritacaChatClient maritacaChatClient, RecipeMapper recipeMapper, AiResponseStore aiResponseStore,
+                       @Qualifier("aiBulkhead") Bulkhead aiBulkhead) {
         this.maritacaChatClient = maritacaChatClient;
         this.recipeMapper = recipeMapper;
+        this.aiResponseStore = aiResponseStore;
+        this.aiBulkhead = aiBulkhead;
     }
 
     public Mono<List<Recipe>> generateRecipe(List<FoodItem> foodItems) {
+        return aiBulkhead.run(() -> maritacaChatClient.call(buildRecipePrompt(foodItems)))
+                .map(response -> response.getResult().getOutput().getText())
+                .map(recipeMapper::parseRecipeFromJson);
+    }
+
+    /**
+     * Stream generated recipes, emitting each one as soon as its JSON object is complete
+     */
+    public Flux<Recipe> streamRecipes(List<FoodItem> foodItems) {
+        return aiBulkhead.runMany(() -> {
+            JsonArrayStreamSplitter splitter = new JsonArrayStreamSplitter();
+            return maritacaChatClient.stream(buildRecipePrompt(foodItems))
+                    .map(chunk -> chunk.getResult().getOutput().getText())
+                    .concatMapIterable(splitter::feed)
+                    .flatMapIterable(recipeJson -> recipeMapper.parseSingleRecipeFromJson(recipeJson).stream().toList());
+        });
+    }
+
+    private Prompt buildRecipePrompt(List<FoodItem> foodItems) {
         // Generated food list string but not using it in this implementation
         // Keeping the code for future reference
         /* 
@@ -51,14 +81,10 @@ public class ChatService {
                 """;
 
 
-        Prompt chatPrompt = new Prompt(List.of(
+        return new Prompt(List.of(
                 new SystemMessage(systemPrompt),
                 new UserMessage(prompt)
         ));
-
-        return maritacaChatClient.call(chatPrompt)
-                .map(response -> response.getResult().getOutput().getText())
-                .map(recipeMapper::parseRecipeFromJson);
     }
 
     public Mono<String> analyzeNutritionalProfile(Recipe recipe) {
@@ -82,8 +108,10 @@ public class ChatService {
                 new SystemMessage(systemPrompt),
                 new UserMessage(nutriPrompt)));
 
-        return maritacaChatClient.call(analyzePrompt)
-                .map(response -> response.getResult().getOutput().getText());
+        // Repeat analyses of an unchanged recipe are served from the response store
+        return aiResponseStore.getOrGenerate(PromptTemplate.RECIPE_ANALYSIS, recipe.getId(), List.of(food),
+                () -> aiBulkhead.run(() -> maritacaChatClient.call(analyzePrompt))
+                        .map(response -> response.getResult().getOutput().getText()));
     }
 
     public Mono<String> suggestDietaryAdjustments(List<FoodItem> foodItems, String dietaryPreference) {
@@ -130,7 +158,9 @@ public class ChatService {
                 new SystemMessage(systemPrompt),
                 new UserMessage(prompt)));
 
-        return maritacaChatClient.call(nutritionPrompt)
-                .map(response -> response.getResult().getOutput().getText());
+        return aiResponseStore.getOrGenerate(PromptTemplate.NUTRITION_FACTS, null,
+                List.of(FoodNameNormalizer.canonicalize(foodName)),
+                () -> aiBulkhead.run(() -> maritacaChatClient.call(nutritionPrompt))
+                        .map(response -> response.getResult().getOutput().getText()));
     }
 }
\ No newline at end of file
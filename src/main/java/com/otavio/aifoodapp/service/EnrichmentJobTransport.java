@@ -0,0 +1,52 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.otavio.aifoodapp.model.EnrichmentJob;
+
+/**
+ * Transport of the AI enrichment queue. The Postgres implementation is the default
+ * (app.enrichment.queue.transport=postgres); a broker-backed one (the AMQP starter is already on the classpath)
+ * can be plugged in by implementing this interface under another transport value.
+ */
+public interface EnrichmentJobTransport {
+
+    /**
+     * Queue enrichment of a saved food item. Joins the caller's transaction when the transport supports it
+     */
+    void enqueue(Long foodItemId);
+
+    /**
+     * Queue enrichment of several saved food items at once (bulk imports)
+     */
+    default void enqueueAll(List<Long> foodItemIds) {
+        foodItemIds.forEach(this::enqueue);
+    }
+
+    /**
+     * Claim up to max due jobs for this worker; the attempt count of each claimed job is incremented
+     * and identifies the claim when the job is settled
+     */
+    List<EnrichmentJob> claim(int max);
+
+    /**
+     * Settling is fenced on the claim: complete, retry and deadLetter change nothing and return false
+     * when the job's lease ran out and another worker claimed it since
+     */
+    boolean complete(EnrichmentJob job);
+
+    boolean retry(EnrichmentJob job, Duration delay, String error);
+
+    boolean deadLetter(EnrichmentJob job, String error);
+
+    QueueStats stats();
+
+    /**
+     * @param depth jobs waiting or in progress
+     * @param dead dead-lettered jobs
+     * @param lag age of the oldest live job, zero when the queue is empty
+     */
+    record QueueStats(long depth, long dead, Duration lag) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.otavio.aifoodapp.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.repository.FoodItemRepository;
+
+/**
+ * Writes food items together with their enrichment jobs, so an item is never left
+ * without nutrition facts and without a job to fill them in
+ */
+@Service
+public class EnrichmentQueue {
+
+    private final FoodItemRepository foodItemRepository;
+    private final EnrichmentJobTransport transport;
+
+    public EnrichmentQueue(FoodItemRepository foodItemRepository, EnrichmentJobTransport transport) {
+        this.foodItemRepository = foodItemRepository;
+        this.transport = transport;
+    }
+
+    /**
+     * Save the items and queue the ones still waiting for enrichment (PENDING or PARTIAL)
+     */
+    @Transactional
+    public List<FoodItem> saveAndEnqueue(List<FoodItem> foodItems) {
+        // Flushed as one JDBC batch before the jobs are inserted, which select the item rows
+        List<FoodItem> saved = foodItemRepository.saveAllAndFlush(foodItems);
+        List<Long> toEnrich = saved.stream()
+                .filter(item -> item.getEnrichmentStatus() == EnrichmentStatus.PENDING
+                        || item.getEnrichmentStatus() == EnrichmentStatus.PARTIAL)
+                .map(FoodItem::getId)
+                .toList();
+        // One statement for all the jobs, not an IDENTITY insert per item
+        transport.enqueueAll(toEnrich);
+        return saved;
+    }
+}
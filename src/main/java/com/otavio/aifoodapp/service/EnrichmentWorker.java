@@ -0,0 +1,238 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.model.EnrichmentJob;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.repository.FoodItemRepository;
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drains the enrichment job queue: claims a batch, resolves nutrition facts with bounded concurrency
+ * and settles each job as completed, rescheduled with exponential backoff, or dead-lettered after max-attempts.
+ * Every replica runs a worker, the transport guarantees a job is held by one of them at a time: each attempt is
+ * cut at item-budget, so a claimed batch settles within ceil(batch-size / concurrency) x item-budget, which the
+ * lease must exceed.
+ */
+@Service
+public class EnrichmentWorker {
+    private static final Logger log = LoggerFactory.getLogger(EnrichmentWorker.class);
+
+    private final EnrichmentJobTransport transport;
+    private final FoodItemRepository foodItemRepository;
+    private final FoodAiService foodAiService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration itemBudget;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Timer latency;
+
+    public EnrichmentWorker(EnrichmentJobTransport transport, FoodItemRepository foodItemRepository,
+                            FoodAiService foodAiService, TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.enrichment.queue.batch-size:20}") int batchSize,
+                            @Value("${app.enrichment.queue.concurrency:4}") int concurrency,
+                            @Value("${app.enrichment.queue.max-attempts:5}") int maxAttempts,
+                            @Value("${app.enrichment.queue.item-budget-ms:30000}") long itemBudgetMs,
+                            @Value("${app.enrichment.queue.base-backoff-ms:5000}") long baseBackoffMs,
+                            @Value("${app.enrichment.queue.max-backoff-ms:300000}") long maxBackoffMs,
+                            @Value("${app.enrichment.queue.lease-ms:180000}") long leaseMs) {
+        this.transport = transport;
+        this.foodItemRepository = foodItemRepository;
+        this.foodAiService = foodAiService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.itemBudget = Duration.ofMillis(itemBudgetMs);
+        this.baseBackoff = Duration.ofMillis(baseBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+
+        // Otherwise another replica could re-claim jobs of a batch that is still running
+        Duration batchBudget = itemBudget.multipliedBy((batchSize + concurrency - 1) / concurrency);
+        if (leaseMs <= batchBudget.toMillis()) {
+            throw new IllegalStateException("app.enrichment.queue.lease-ms (" + leaseMs + ") must exceed "
+                    + "ceil(batch-size / concurrency) x item-budget-ms (" + batchBudget.toMillis() + ")");
+        }
+
+        Gauge.builder("enrichment.queue.depth", depth, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("enrichment.queue.dead", dead, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("enrichment.queue.lag", lagSeconds, AtomicLong::get).baseUnit("seconds").register(meterRegistry);
+        this.completed = Counter.builder("enrichment.jobs").tag("result", "completed").register(meterRegistry);
+        this.retried = Counter.builder("enrichment.jobs").tag("result", "retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("enrichment.jobs").tag("result", "dead").register(meterRegistry);
+        // Enqueue to completion, including time spent waiting for retries
+        this.latency = Timer.builder("enrichment.jobs.latency").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.enrichment.queue.poll-interval-ms:1000}")
+    public void drain() {
+        refreshStats();
+
+        List<EnrichmentJob> jobs = transport.claim(batchSize);
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        Map<Long, FoodItem> items = foodItemRepository.findAllById(jobs.stream().map(EnrichmentJob::getFoodItemId).toList())
+                .stream()
+                .collect(Collectors.toMap(FoodItem::getId, Function.identity()));
+
+        Iterable<Attempt> attempts = Flux.fromIterable(jobs)
+                .flatMap(job -> attempt(job, items.get(job.getFoodItemId())), concurrency)
+                .toIterable();
+
+        // Each job is settled as soon as its attempt ends, on the scheduler thread (the AI calls complete on Netty threads)
+        for (Attempt attempt : attempts) {
+            settle(attempt);
+        }
+    }
+
+    private Mono<Attempt> attempt(EnrichmentJob job, FoodItem item) {
+        if (item == null) {
+            return Mono.just(new Attempt(job, null, null, null));
+        }
+        return foodAiService.resolveNutritionalFacts(item)
+                .timeout(itemBudget)
+                .map(facts -> new Attempt(job, item, facts, null))
+                .switchIfEmpty(Mono.fromSupplier(() -> new Attempt(job, item, null, null)))
+                .onErrorResume(e -> Mono.just(new Attempt(job, item, null, e)))
+                // Each job gets its own budget, there is no request to inherit one from
+                .contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, RequestDeadline.after(itemBudget)));
+    }
+
+    /**
+     * The item is read again, locked, in the settling transaction: the copy loaded before the AI call may be stale,
+     * and writing it back would undo edits made meanwhile. If its name or quantity changed since the claim the facts
+     * no longer fit, so nothing is written; the edit (see FoodItemService.saveWithAiEnhancement) queues its own job
+     */
+    private void settle(Attempt attempt) {
+        EnrichmentJob job = attempt.job();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!settle(job, attempt)) {
+                    // Re-claimed by another worker after the lease ran out, its outcome wins
+                    log.warn("Enrichment job {} was claimed again while attempt {} ran, dropping its result",
+                            job.getId(), job.getAttempts());
+                    status.setRollbackOnly();
+                }
+            });
+        } catch (Exception e) {
+            // The job stays claimed and is picked up again when its lease runs out
+            log.error("Could not settle enrichment job {}: {}", job.getId(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return false when the job was claimed again since, nothing may be written then
+     */
+    private boolean settle(EnrichmentJob job, Attempt attempt) {
+        FoodItem item = attempt.item() != null
+                ? foodItemRepository.findByIdForUpdate(attempt.item().getId()).orElse(null)
+                : null;
+        if (item == null) {
+            // Item deleted since the claim
+            transport.complete(job);
+            return true;
+        }
+        if (!Objects.equals(item.getName(), attempt.item().getName())
+                || !Objects.equals(item.getQuantity(), attempt.item().getQuantity())) {
+            log.debug("Item {} changed while enrichment job {} was running, dropping its result", item.getId(), job.getId());
+            return transport.complete(job);
+        }
+
+        if (attempt.facts() != null) {
+            if (!transport.complete(job)) {
+                return false;
+            }
+            attempt.facts().applyTo(item);
+            completed.increment();
+            latency.record(Duration.between(job.getCreatedAt(), OffsetDateTime.now()));
+            return true;
+        }
+
+        // Only the attempt count (and FAILED status) change, the managed item is flushed on commit
+        String error = attempt.error() != null ? attempt.error().getMessage() : "No nutrition facts returned";
+        if (job.getAttempts() >= maxAttempts) {
+            if (!transport.deadLetter(job, error)) {
+                return false;
+            }
+            log.warn("Dead-lettering enrichment of item {} after {} attempts: {}", item.getId(), job.getAttempts(), error);
+            item.setEnrichmentStatus(EnrichmentStatus.FAILED);
+            deadLettered.increment();
+        } else {
+            Duration delay = backoff(job.getAttempts(), attempt.error());
+            if (!transport.retry(job, delay, error)) {
+                return false;
+            }
+            log.debug("Enrichment of item {} failed (attempt {}), retrying in {}: {}", item.getId(), job.getAttempts(), delay, error);
+            retried.increment();
+        }
+        item.setEnrichmentAttempts(job.getAttempts());
+        return true;
+    }
+
+    /**
+     * Exponential backoff with equal jitter, never shorter than the Retry-After of an unavailable AI
+     */
+    private Duration backoff(int attempts, Throwable error) {
+        long exponential = baseBackoff.toMillis() << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(maxBackoff.toMillis(), exponential);
+        Duration delay = Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+        if (error instanceof AiServiceUnavailableException unavailable
+                && unavailable.getRetryAfter().compareTo(delay) > 0) {
+            return unavailable.getRetryAfter();
+        }
+        return delay;
+    }
+
+    private void refreshStats() {
+        try {
+            EnrichmentJobTransport.QueueStats stats = transport.stats();
+            depth.set(stats.depth());
+            dead.set(stats.dead());
+            lagSeconds.set(stats.lag().toSeconds());
+        } catch (Exception e) {
+            log.debug("Could not read enrichment queue stats: {}", e.getMessage());
+        }
+    }
+
+    private record Attempt(EnrichmentJob job, FoodItem item, NutritionFacts facts, Throwable error) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.otavio.aifoodapp.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.enums.ExportFormat;
+import com.otavio.aifoodapp.repository.ExportRepository;
+import com.otavio.aifoodapp.util.ExportWriter;
+
+/**
+ * Streams a user's pantry or recipes to an output stream as NDJSON or CSV, row by row from a database cursor
+ */
+@Service
+public class ExportService {
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final List<String> FOOD_ITEM_COLUMNS = List.of(
+            "id", "name", "quantity", "expiration", "calories", "protein", "fat", "carbohydrates",
+            "fiber", "sugar", "sodium", "foodGroup", "enrichmentStatus", "tags");
+
+    private static final List<String> RECIPE_COLUMNS = List.of(
+            "id", "name", "description", "quantity", "instructions", "ingredients", "nutritionalInfo");
+
+    private final ExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(ExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The read-only transaction keeps the cursor open while rows are written
+     */
+    @Transactional(readOnly = true)
+    public void exportFoodItems(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int[] rows = {0};
+        try (ExportWriter writer = new ExportWriter(format, out, objectMapper, FOOD_ITEM_COLUMNS)) {
+            exportRepository.streamFoodItems(userId, rs -> {
+                write(writer,
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getObject("quantity", Integer.class),
+                        rs.getObject("expiration", LocalDate.class),
+                        rs.getObject("calories", Double.class),
+                        rs.getObject("protein", Double.class),
+                        rs.getObject("fat", Double.class),
+                        rs.getObject("carbohydrates", Double.class),
+                        rs.getObject("fiber", Double.class),
+                        rs.getObject("sugar", Double.class),
+                        rs.getObject("sodium", Double.class),
+                        rs.getString("food_group"),
+                        rs.getString("enrichment_status"),
+                        strings(rs, "tags"));
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} food items for user {} as {} in {} ms", rows[0], userId, format, System.currentTimeMillis() - start);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportRecipes(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        int[] rows = {0};
+        try (ExportWriter writer = new ExportWriter(format, out, objectMapper, RECIPE_COLUMNS)) {
+            exportRepository.streamRecipes(userId, rs -> {
+                write(writer,
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getObject("quantity", Integer.class),
+                        strings(rs, "instructions"),
+                        strings(rs, "ingredients"),
+                        strings(rs, "nutritional_info"));
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} recipes for user {} as {} in {} ms", rows[0], userId, format, System.currentTimeMillis() - start);
+    }
+
+    private static void write(ExportWriter writer, Object... values) {
+        try {
+            writer.writeRow(values);
+        } catch (IOException e) {
+            // Usually the client went away; surfaces out of the row callback and ends the cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> strings(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            return Arrays.stream((Object[]) array.getArray()).map(String::valueOf).toList();
+        } finally {
+            array.free();
+        }
+    }
+}
@@ -1,20 +1,19 @@
 package com.otavio.aifoodapp.service;
 
-import java.util.Collections;
 import java.util.List;
 
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.otavio.aifoodapp.config.MaritacaChatClient;
-import com.otavio.aifoodapp.enums.FoodGroup;
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.mapper.NutritionMapper;
 import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.util.Bulkhead;
 
 import reactor.core.publisher.Mono;
 
@@ -22,17 +21,51 @@ import reactor.core.publisher.Mono;
 public class FoodAiService {
 
     private final MaritacaChatClient maritacaChatClient;
-    private final ObjectMapper objectMapper;
+    private final NutritionMapper nutritionMapper;
+    private final NutritionFactsCache nutritionFactsCache;
+    private final NutritionBatcher nutritionBatcher;
+    private final Bulkhead aiBulkhead;
 
     @Value("${maritaca.system.prompt}")
     private String systemPrompt;
 
-    public FoodAiService(MaritacaChatClient maritacaChatClient, ObjectMapper objectMapper) {
+    public FoodAiService(MaritacaChatClient maritacaChatClient, NutritionMapper nutritionMapper,
+                         NutritionFactsCache nutritionFactsCache, NutritionBatcher nutritionBatcher,
+                         @Qualifier("aiBulkhead") Bulkhead aiBulkhead) {
         this.maritacaChatClient = maritacaChatClient;
-        this.objectMapper = objectMapper;
+        this.nutritionMapper = nutritionMapper;
+        this.nutritionFactsCache = nutritionFactsCache;
+        this.nutritionBatcher = nutritionBatcher;
+        this.aiBulkhead = aiBulkhead;
     }
 
-    public Mono<FoodItem> determineNutritionalFacts(FoodItem foodItem) {
+    /**
+     * Resolve nutrition facts from the cache, falling back to the LLM on a miss.
+     * Errors are not swallowed: callers decide how to degrade (see FoodItemService)
+     * @return the facts, or empty when the model answer could not be parsed
+     */
+    public Mono<NutritionFacts> resolveNutritionalFacts(FoodItem foodItem) {
+        String name = foodItem.getName();
+        Integer quantity = foodItem.getQuantity();
+
+        return nutritionFactsCache.lookup(name, quantity)
+                .switchIfEmpty(Mono.defer(() -> fetchNutritionalFacts(foodItem)
+                        .doOnNext(facts -> nutritionFactsCache.store(name, quantity, facts))));
+    }
+
+    /**
+     * Individual calls run in the AI lane, so a slow Maritaca rejects new lookups instead of piling them up.
+     * Batched lookups hold no slot of their own, the batch call takes one (see NutritionBatcher)
+     */
+    private Mono<NutritionFacts> fetchNutritionalFacts(FoodItem foodItem) {
+        if (nutritionBatcher.isEnabled()) {
+            // Items the batch answer omits fall back to an individual call
+            return nutritionBatcher.submit(foodItem, () -> aiBulkhead.run(() -> requestNutritionalFacts(foodItem)));
+        }
+        return aiBulkhead.run(() -> requestNutritionalFacts(foodItem));
+    }
+
+    private Mono<NutritionFacts> requestNutritionalFacts(FoodItem foodItem) {
         String promptText = String.format("""
                 Determine nutritional facts for the following food item:
 
@@ -63,56 +96,6 @@ public class FoodAiService {
 
         return maritacaChatClient.call(nutritionPrompt)
                 .map(response -> response.getResult().getOutput().getText())
-                .map(jsonResponse -> parseNutritionResponse(jsonResponse, foodItem))
-                .onErrorReturn(foodItem); // Return original food item on error
-    }
-
-    private FoodItem parseNutritionResponse(String jsonResponse, FoodItem foodItem) {
-        try {
-            // Clean the JSON string if needed (e.g., removing markdown formatting)
-            String cleanedJson = jsonResponse.trim();
-            if (cleanedJson.startsWith("```json")) {
-                cleanedJson = cleanedJson.substring(7);
-            }
-            if (cleanedJson.endsWith("```")) {
-                cleanedJson = cleanedJson.substring(0, cleanedJson.length() - 3);
-            }
-            cleanedJson = cleanedJson.trim();
-
-            JsonNode jsonNode = objectMapper.readTree(cleanedJson);
-
-            // Update nutritional facts
-            foodItem.setCalories(jsonNode.has("calories") ? jsonNode.get("calories").asDouble() : null);
-            foodItem.setProtein(jsonNode.has("protein") ? jsonNode.get("protein").asDouble() : null);
-            foodItem.setFat(jsonNode.has("fat") ? jsonNode.get("fat").asDouble() : null);
-            foodItem.setCarbohydrates(jsonNode.has("carbohydrates") ? jsonNode.get("carbohydrates").asDouble() : null);
-            foodItem.setFiber(jsonNode.has("fiber") ? jsonNode.get("fiber").asDouble() : null);
-            foodItem.setSugar(jsonNode.has("sugar") ? jsonNode.get("sugar").asDouble() : null);
-            foodItem.setSodium(jsonNode.has("sodium") ? jsonNode.get("sodium").asDouble() : null);
-
-            // Set food group
-            if (jsonNode.has("foodGroup")) {
-                String foodGroupStr = jsonNode.get("foodGroup").asText();
-                try {
-                    foodItem.setFoodGroup(FoodGroup.valueOf(foodGroupStr));
-                } catch (IllegalArgumentException e) {
-                    // Default to GRAINS if the food group is invalid
-                    foodItem.setFoodGroup(FoodGroup.GRAINS);
-                }
-            }
-
-            // Set tags
-            if (jsonNode.has("tags") && jsonNode.get("tags").isArray()) {
-                List<String> tags = objectMapper.convertValue(jsonNode.get("tags"), 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
-                foodItem.setTags(tags);
-            } else {
-                foodItem.setTags(Collections.emptyList());
-            }
-
-            return foodItem;
-        } catch (JsonProcessingException e) {
-            return foodItem; // Return original food item on error
-        }
+                .flatMap(jsonResponse -> Mono.justOrEmpty(nutritionMapper.parseNutritionFromJson(jsonResponse)));
     }
 }
@@ -0,0 +1,433 @@
+package com.otavio.aifoodapp.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.dto.ImportResultDto;
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.ExportFormat;
+import com.otavio.aifoodapp.enums.FoodGroup;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.repository.FoodItemCopyRepository;
+import com.otavio.aifoodapp.util.CsvRecordReader;
+
+/**
+ * Bulk pantry import. Rows are read and validated one at a time from the upload and loaded in chunks with COPY,
+ * each chunk in its own transaction; invalid rows are skipped and reported by line.
+ * The import is not atomic: when the upload can't be read any further or a chunk fails to load, it stops there,
+ * chunks loaded before stay imported and the result tells how far it got.
+ * Accepts the same columns /api/export/foods writes, so an export can be imported back.
+ */
+@Service
+public class FoodImportService {
+    private static final Logger log = LoggerFactory.getLogger(FoodImportService.class);
+
+    private static final int MAX_NAME_LENGTH = 250;
+    private static final int MAX_TAG_LENGTH = 50;
+    private static final String[] MACRO_COLUMNS = {"calories", "protein", "fat", "carbohydrates", "fiber", "sugar", "sodium"};
+
+    private final FoodItemCopyRepository foodItemCopyRepository;
+    private final EnrichmentJobTransport enrichmentJobTransport;
+    private final RecipeCache recipeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public FoodImportService(FoodItemCopyRepository foodItemCopyRepository, EnrichmentJobTransport enrichmentJobTransport,
+                             RecipeCache recipeCache, TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+                             @Value("${app.foods.import.chunk-size:5000}") int chunkSize,
+                             @Value("${app.foods.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.foodItemCopyRepository = foodItemCopyRepository;
+        this.enrichmentJobTransport = enrichmentJobTransport;
+        this.recipeCache = recipeCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * @param enrich queue AI enrichment for imported items that came without nutrition facts
+     */
+    public ImportResultDto importFoods(Long userId, ExportFormat format, InputStream in, boolean enrich) throws IOException {
+        long start = System.currentTimeMillis();
+        Progress progress = new Progress();
+        List<FoodItem> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        RowIterator rows = format == ExportFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+        long chunkStartLine = 0;
+        while (rows.hasNext()) {
+            Row row = rows.next();
+            if (row.error() != null) {
+                progress.reject(row.line(), row.error());
+                continue;
+            }
+            try {
+                chunk.add(toFoodItem(row.fields(), enrich));
+            } catch (IllegalArgumentException e) {
+                progress.reject(row.line(), e.getMessage());
+                continue;
+            }
+            if (chunk.size() == 1) {
+                chunkStartLine = row.line();
+            }
+            if (chunk.size() >= chunkSize) {
+                if (!load(userId, chunk, chunkStartLine, progress)) {
+                    break;
+                }
+                chunk.clear();
+            }
+        }
+        if (rows.failure != null) {
+            progress.failure = rows.failure;
+        }
+        if (!chunk.isEmpty() && progress.failure == null) {
+            load(userId, chunk, chunkStartLine, progress);
+        }
+
+        if (progress.imported > 0) {
+            recipeCache.invalidate(userId);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Imported {} food items for user {} ({} rejected, {} queued for enrichment) in {} ms",
+                progress.imported, userId, progress.rejected, progress.queued, elapsed);
+        return new ImportResultDto(progress.imported, progress.rejected, progress.queued,
+                progress.errors, progress.rejected > progress.errors.size(), progress.failure);
+    }
+
+    /**
+     * @param startLine line of the chunk's first row, reported when the chunk fails
+     * @return false when the chunk could not be loaded; it was rolled back and recorded as the import's failure
+     */
+    private boolean load(Long userId, List<FoodItem> chunk, long startLine, Progress progress) {
+        try {
+            loadChunk(userId, chunk, progress);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Import for user {} stopped, chunk starting at line {} failed to load", userId, startLine, e);
+            progress.failure = new ImportResultDto.RowError(startLine,
+                    "Could not load the " + chunk.size() + " rows starting at this line: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void loadChunk(Long userId, List<FoodItem> chunk, Progress progress) {
+        long[] counts = transactionTemplate.execute(status -> {
+            List<Long> ids = foodItemCopyRepository.reserveIds(chunk.size());
+            StringBuilder items = new StringBuilder(chunk.size() * 128);
+            StringBuilder tags = new StringBuilder();
+            List<Long> toEnrich = new ArrayList<>();
+
+            for (int i = 0; i < chunk.size(); i++) {
+                FoodItem item = chunk.get(i);
+                Long id = ids.get(i);
+                appendCsv(items, id, item.getName(), item.getQuantity(), item.getExpiration(),
+                        item.getCalories(), item.getProtein(), item.getFat(), item.getCarbohydrates(),
+                        item.getFiber(), item.getSugar(), item.getSodium(),
+                        item.getFoodGroup() != null ? item.getFoodGroup().name() : null,
+                        item.getEnrichmentStatus() != null ? item.getEnrichmentStatus().name() : null,
+                        0, userId);
+                for (String tag : item.getTags()) {
+                    appendCsv(tags, id, tag);
+                }
+                if (item.getEnrichmentStatus() == EnrichmentStatus.PENDING) {
+                    toEnrich.add(id);
+                }
+            }
+
+            long imported = foodItemCopyRepository.copyFoodItems(items.toString());
+            foodItemCopyRepository.copyTags(tags.toString());
+            enrichmentJobTransport.enqueueAll(toEnrich);
+            return new long[] {imported, toEnrich.size()};
+        });
+        // Counted only once the chunk has committed
+        progress.imported += counts[0];
+        progress.queued += counts[1];
+    }
+
+    static FoodItem toFoodItem(Map<String, String> fields, boolean enrich) {
+        FoodItem item = new FoodItem();
+
+        String name = trimToNull(fields.get("name"));
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+        }
+        item.setName(name);
+
+        String quantity = trimToNull(fields.get("quantity"));
+        if (quantity == null) {
+            throw new IllegalArgumentException("quantity is required");
+        }
+        try {
+            item.setQuantity(Integer.valueOf(quantity));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("quantity must be an integer: " + quantity);
+        }
+        if (item.getQuantity() < 0) {
+            throw new IllegalArgumentException("quantity must not be negative");
+        }
+
+        String expiration = trimToNull(fields.get("expiration"));
+        if (expiration == null) {
+            throw new IllegalArgumentException("expiration is required");
+        }
+        try {
+            item.setExpiration(LocalDate.parse(expiration));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("expiration must be an ISO date (yyyy-MM-dd): " + expiration);
+        }
+
+        Double[] macros = new Double[MACRO_COLUMNS.length];
+        for (int i = 0; i < MACRO_COLUMNS.length; i++) {
+            macros[i] = parseMacro(MACRO_COLUMNS[i], trimToNull(fields.get(MACRO_COLUMNS[i])));
+        }
+        item.setCalories(macros[0]);
+        item.setProtein(macros[1]);
+        item.setFat(macros[2]);
+        item.setCarbohydrates(macros[3]);
+        item.setFiber(macros[4]);
+        item.setSugar(macros[5]);
+        item.setSodium(macros[6]);
+
+        String foodGroup = trimToNull(fields.get("foodgroup"));
+        if (foodGroup != null) {
+            try {
+                item.setFoodGroup(FoodGroup.valueOf(foodGroup.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("unknown foodGroup: " + foodGroup);
+            }
+        }
+
+        List<String> tags = new ArrayList<>();
+        String rawTags = fields.get("tags");
+        if (rawTags != null) {
+            for (String tag : rawTags.split("\\|")) {
+                String trimmed = tag.trim();
+                if (trimmed.length() > MAX_TAG_LENGTH) {
+                    throw new IllegalArgumentException("tag is longer than " + MAX_TAG_LENGTH + " characters: " + trimmed);
+                }
+                if (!trimmed.isEmpty()) {
+                    tags.add(trimmed);
+                }
+            }
+        }
+        item.setTags(tags);
+
+        // Rows that bring their own nutrition facts are complete; the rest are enriched afterwards on request
+        if (item.getCalories() != null) {
+            item.setEnrichmentStatus(EnrichmentStatus.COMPLETE);
+        } else if (enrich) {
+            item.setEnrichmentStatus(EnrichmentStatus.PENDING);
+        }
+        return item;
+    }
+
+    private static Double parseMacro(String column, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (parsed < 0 || Double.isNaN(parsed) || Double.isInfinite(parsed)) {
+                throw new IllegalArgumentException(column + " must be a non-negative number: " + value);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " must be a number: " + value);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * One COPY csv line; null is written as an unquoted empty field, which COPY reads as NULL
+     */
+    private static void appendCsv(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append('\n');
+    }
+
+    private RowIterator csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The CSV is empty");
+        }
+        List<String> columns = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        if (!columns.contains("name") || !columns.contains("quantity") || !columns.contains("expiration")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The CSV header must have name, quantity and expiration");
+        }
+
+        return new RowIterator() {
+            @Override
+            Row fetch() throws IOException {
+                while (true) {
+                    line = csv.getLine();
+                    List<String> record = csv.readRecord();
+                    if (record == null) {
+                        return null;
+                    }
+                    if (record.size() == 1 && record.get(0).isBlank()) {
+                        continue;
+                    }
+                    if (record.size() != columns.size()) {
+                        return Row.rejected(line, "expected " + columns.size() + " fields, got " + record.size());
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        fields.put(columns.get(i), record.get(i));
+                    }
+                    return new Row(line, fields, null);
+                }
+            }
+        };
+    }
+
+    private RowIterator ndjsonRows(BufferedReader reader) {
+        return new RowIterator() {
+            @Override
+            Row fetch() throws IOException {
+                while (true) {
+                    line++;
+                    String text = reader.readLine();
+                    if (text == null) {
+                        return null;
+                    }
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    JsonNode node;
+                    try {
+                        node = objectMapper.readTree(text);
+                    } catch (JsonProcessingException e) {
+                        return Row.rejected(line, "invalid JSON: " + e.getOriginalMessage());
+                    }
+                    if (!node.isObject()) {
+                        return Row.rejected(line, "expected a JSON object");
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    node.fields().forEachRemaining(entry -> fields.put(entry.getKey().toLowerCase(Locale.ROOT), text(entry.getValue())));
+                    return new Row(line, fields, null);
+                }
+            }
+        };
+    }
+
+    /**
+     * Arrays (tags) are joined with "|", as in the CSV form
+     */
+    private static String text(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isArray()) {
+            List<String> parts = new ArrayList<>();
+            value.forEach(part -> parts.add(part.asText()));
+            return String.join("|", parts);
+        }
+        return value.asText();
+    }
+
+    private record Row(long line, Map<String, String> fields, String error) {
+        static Row rejected(long line, String error) {
+            return new Row(line, null, error);
+        }
+    }
+
+    /**
+     * Pull-style iterator over parsed rows. A read error of the upload (e.g. an unterminated quote) ends the
+     * iteration and is kept as the failure, with the line the unreadable row starts on
+     */
+    private abstract static class RowIterator implements Iterator<Row> {
+        private Row next;
+        private boolean done;
+        private ImportResultDto.RowError failure;
+        // Line of the row being read, kept up to date by fetch
+        long line;
+
+        abstract Row fetch() throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = fetch();
+                } catch (IOException e) {
+                    failure = new ImportResultDto.RowError(line, "Could not read the upload: " + e.getMessage());
+                    next = null;
+                }
+                done = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public Row next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Row row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    private final class Progress {
+        private long imported;
+        private long rejected;
+        private long queued;
+        private ImportResultDto.RowError failure;
+        private final List<ImportResultDto.RowError> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportResultDto.RowError(line, message));
+            }
+        }
+    }
+}
@@ -1,22 +1,52 @@
 package com.otavio.aifoodapp.service;
 
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.otavio.aifoodapp.dto.FoodDto;
+import com.otavio.aifoodapp.dto.FoodItemSummary;
+import com.otavio.aifoodapp.dto.FoodPageDto;
+import com.otavio.aifoodapp.dto.FoodQuery;
+import com.otavio.aifoodapp.enums.EnrichmentOutcome;
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.FoodSort;
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.mapper.FoodMapper;
 import com.otavio.aifoodapp.model.FoodItem;
 import com.otavio.aifoodapp.model.User;
+import com.otavio.aifoodapp.repository.FoodItemQueryRepository;
 import com.otavio.aifoodapp.repository.FoodItemRepository;
 import com.otavio.aifoodapp.repository.UserRepository;
+import com.otavio.aifoodapp.util.Bulkhead;
+import com.otavio.aifoodapp.util.KeysetCursor;
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 @Service
 public class FoodItemService {
@@ -25,18 +55,49 @@ public class FoodItemService {
     private final FoodItemRepository foodItemRepository;
     private final UserRepository userRepository;
     private final FoodAiService foodAiService;
+    private final RecipeCache recipeCache;
+    private final EnrichmentQueue enrichmentQueue;
+    private final Bulkhead dbBulkhead;
+    private final FoodMapper foodMapper;
+    private final FoodItemQueryRepository foodItemQueryRepository;
+
+    private static final Duration SAVE_BATCH_MAX_WAIT = Duration.ofMillis(250);
+
+    private final int enrichmentConcurrency;
+    private final Duration enrichmentTimeout;
+    private final int saveBatchSize;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public FoodItemService(FoodItemRepository foodItemRepository, UserRepository userRepository, FoodAiService foodAiService) {
+    public FoodItemService(FoodItemRepository foodItemRepository, UserRepository userRepository, FoodAiService foodAiService,
+                           RecipeCache recipeCache, EnrichmentQueue enrichmentQueue,
+                           @Qualifier("dbBulkhead") Bulkhead dbBulkhead, FoodMapper foodMapper,
+                           FoodItemQueryRepository foodItemQueryRepository,
+                           @Value("${app.enrichment.concurrency:8}") int enrichmentConcurrency,
+                           @Value("${app.enrichment.item-timeout-ms:15000}") long enrichmentTimeoutMs,
+                           @Value("${app.enrichment.save-batch-size:25}") int saveBatchSize,
+                           @Value("${app.foods.page.default-size:50}") int defaultPageSize,
+                           @Value("${app.foods.page.max-size:200}") int maxPageSize) {
         this.foodItemRepository = foodItemRepository;
         this.userRepository = userRepository;
         this.foodAiService = foodAiService;
+        this.recipeCache = recipeCache;
+        this.enrichmentQueue = enrichmentQueue;
+        this.dbBulkhead = dbBulkhead;
+        this.foodMapper = foodMapper;
+        this.foodItemQueryRepository = foodItemQueryRepository;
+        this.enrichmentConcurrency = enrichmentConcurrency;
+        this.enrichmentTimeout = Duration.ofMillis(enrichmentTimeoutMs);
+        this.saveBatchSize = saveBatchSize;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
      * Get the current authenticated user
      * @return the authenticated user
      */
-    private User getCurrentUser() {
+    public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null) {
             log.error("Authentication is NULL");
@@ -171,36 +232,132 @@ public class FoodItemService {
     }
 
     /**
-     * Save a food item with AI-enhanced nutritional information
+     * Save a food item with AI-enhanced nutritional information.
+     * Enrichment is bounded by the request deadline; when it runs out the item is saved as PARTIAL
+     * and queued for the background EnrichmentWorker
      * @param foodItem The basic food item with name, quantity, and expiration
-     * @return The saved food item with complete nutritional information
+     * @return The saved food item, with nutritional information when enrichment finished in time
      */
     public FoodItem saveWithAiEnhancement(FoodItem foodItem) {
         // Associate with current user
         foodItem.setUser(getCurrentUser());
-        
-        // Use AI to determine nutritional facts
-        return foodAiService.determineNutritionalFacts(foodItem)
-                .map(foodItemRepository::save)
+
+        EnrichmentResult result = enrich(foodItem)
+                .contextWrite(RequestDeadline.propagate())
                 .block(); // Convert from reactive to blocking for consistency with other methods
+        FoodItem saved = enrichmentQueue.saveAndEnqueue(List.of(result != null ? result.foodItem() : foodItem)).get(0);
+        recipeCache.invalidate(saved.getUser().getId());
+        return saved;
+    }
+
+    /**
+     * Save a food item without waiting for the AI: it is stored as PENDING and enriched by the EnrichmentWorker
+     * @param foodItem The basic food item with name, quantity, and expiration
+     * @return The saved food item, still without nutritional information
+     */
+    public FoodItem saveForEnrichment(FoodItem foodItem) {
+        foodItem.setUser(getCurrentUser());
+        foodItem.setEnrichmentStatus(EnrichmentStatus.PENDING);
+
+        FoodItem saved = enrichmentQueue.saveAndEnqueue(List.of(foodItem)).get(0);
+        recipeCache.invalidate(saved.getUser().getId());
+        return saved;
     }
     
     /**
-     * Save multiple food items with AI-enhanced nutritional information
+     * Save multiple food items with AI-enhanced nutritional information.
+     * Items are enriched concurrently (bounded by app.enrichment.concurrency), each with its own timeout,
+     * and saved in batches as they finish. Each batch commits on its own: when one fails, its items are
+     * reported as NOT_SAVED while the others stay saved
      * @param foodItems List of basic food items with name, quantity, and expiration
-     * @return List of saved food items with complete nutritional information
+     * @return Saved food items with their enrichment outcome, in input order
      */
-    public List<FoodItem> saveAllWithAiEnhancement(List<FoodItem> foodItems) {
-        List<FoodItem> enhancedFoodItems = new ArrayList<>();
+    public List<EnrichmentResult> saveAllWithAiEnhancement(List<FoodItem> foodItems) {
         User currentUser = getCurrentUser();
-        
-        for (FoodItem item : foodItems) {
-            item.setUser(currentUser);
-            FoodItem enhancedItem = foodAiService.determineNutritionalFacts(item).block();
-            enhancedFoodItems.add(enhancedItem);
+        foodItems.forEach(item -> item.setUser(currentUser));
+
+        List<EnrichmentResult> results = Flux.fromIterable(foodItems)
+                .index()
+                .flatMap(indexed -> enrich(indexed.getT2())
+                        .map(result -> Tuples.of(indexed.getT1(), result)), enrichmentConcurrency)
+                // Fair backpressure: while a chunk is being saved, the next full or timed-out buffer waits for it
+                // instead of failing the request with "lack of requests"
+                .bufferTimeout(saveBatchSize, SAVE_BATCH_MAX_WAIT, true)
+                .concatMap(chunk -> Mono.fromCallable(() -> saveChunk(chunk))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.error("Failed to save a batch of {} food items: {}", chunk.size(), e.getMessage());
+                            return Mono.just(notSaved(chunk));
+                        }))
+                .flatMapIterable(Function.identity())
+                .sort(Comparator.comparingLong(Tuple2::getT1))
+                .map(Tuple2::getT2)
+                .collectList()
+                .contextWrite(RequestDeadline.propagate())
+                .block();
+
+        recipeCache.invalidate(currentUser.getId());
+        return results != null ? results : List.of();
+    }
+
+    /**
+     * Resolve nutrition facts for an item without saving it; never fails, items that could not be
+     * enriched come back as PARTIAL with the reason as outcome. Shared with the reactive stack
+     */
+    public Mono<EnrichmentResult> enrich(FoodItem item) {
+        return foodAiService.resolveNutritionalFacts(item)
+                .timeout(enrichmentTimeout)
+                .map(facts -> new EnrichmentResult(facts.applyTo(item), EnrichmentOutcome.ENRICHED))
+                .switchIfEmpty(Mono.fromSupplier(() -> partial(item, EnrichmentOutcome.FALLBACK)))
+                .onErrorResume(TimeoutException.class, e -> {
+                    log.warn("AI enrichment for '{}' ran out of time: {}", item.getName(), e.getMessage());
+                    return Mono.just(partial(item, EnrichmentOutcome.TIMED_OUT));
+                })
+                .onErrorResume(AiServiceUnavailableException.class, e -> {
+                    log.debug("AI enrichment deferred for '{}': {}", item.getName(), e.getMessage());
+                    return Mono.just(partial(item, EnrichmentOutcome.DEFERRED));
+                })
+                .onErrorResume(e -> {
+                    log.warn("AI enrichment failed for '{}': {}", item.getName(), e.getMessage());
+                    return Mono.just(partial(item, EnrichmentOutcome.FALLBACK));
+                });
+    }
+
+    /**
+     * Item saved without nutrition facts, queued for another try by the EnrichmentWorker
+     */
+    private static EnrichmentResult partial(FoodItem item, EnrichmentOutcome outcome) {
+        item.setEnrichmentStatus(EnrichmentStatus.PARTIAL);
+        return new EnrichmentResult(item, outcome);
+    }
+
+    private List<Tuple2<Long, EnrichmentResult>> saveChunk(List<Tuple2<Long, EnrichmentResult>> chunk) {
+        List<FoodItem> saved = enrichmentQueue.saveAndEnqueue(chunk.stream()
+                .map(indexed -> indexed.getT2().foodItem())
+                .toList());
+
+        List<Tuple2<Long, EnrichmentResult>> result = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Tuple2<Long, EnrichmentResult> indexed = chunk.get(i);
+            result.add(Tuples.of(indexed.getT1(), new EnrichmentResult(saved.get(i), indexed.getT2().outcome())));
         }
-        
-        return foodItemRepository.saveAll(enhancedFoodItems);
+        return result;
+    }
+
+    /**
+     * The rolled back save may have assigned ids already, clear them so no item looks stored
+     */
+    private static List<Tuple2<Long, EnrichmentResult>> notSaved(List<Tuple2<Long, EnrichmentResult>> chunk) {
+        return chunk.stream()
+                .map(indexed -> {
+                    FoodItem item = indexed.getT2().foodItem();
+                    item.setId(null);
+                    return Tuples.of(indexed.getT1(), new EnrichmentResult(item, EnrichmentOutcome.NOT_SAVED));
+                })
+                .toList();
+    }
+
+    public record EnrichmentResult(FoodItem foodItem, EnrichmentOutcome outcome) {
     }
 
     /**
@@ -211,7 +368,9 @@ public class FoodItemService {
     public List<FoodItem> saveAll(List<FoodItem> foodItems) {
         User currentUser = getCurrentUser();
         foodItems.forEach(item -> item.setUser(currentUser));
-        return foodItemRepository.saveAll(foodItems);
+        List<FoodItem> saved = foodItemRepository.saveAll(foodItems);
+        recipeCache.invalidate(currentUser.getId());
+        return saved;
     }
 
     /**
@@ -219,8 +378,83 @@ public class FoodItemService {
      * @return List of food items for the current user
      */
     public List<FoodItem> listAll() {
-        User currentUser = getCurrentUser();
-        return foodItemRepository.findByUser(currentUser);
+        return dbBulkhead.call(() -> {
+            User currentUser = getCurrentUser();
+            return foodItemRepository.findByUser(currentUser);
+        });
+    }
+
+    /**
+     * List the current user's food items straight into DTOs: one query for the items and one for all their tags,
+     * however large the pantry. Rows are scalar projections, so nothing is tracked for dirty checking
+     * @return DTOs of the current user's food items, ordered by id
+     */
+    @Transactional(readOnly = true)
+    public List<FoodDto> listAllDtos() {
+        return dbBulkhead.call(() -> {
+            User currentUser = getCurrentUser();
+            List<FoodItemSummary> summaries = foodItemRepository.findSummariesByUserId(currentUser.getId());
+            if (summaries.isEmpty()) {
+                return List.of();
+            }
+
+            Map<Long, List<String>> tagsByItem = new HashMap<>();
+            for (Object[] row : foodItemRepository.findTagsByUserId(currentUser.getId())) {
+                tagsByItem.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+
+            return summaries.stream()
+                    .map(summary -> foodMapper.map(summary, tagsByItem.getOrDefault(summary.id(), List.of())))
+                    .toList();
+        });
+    }
+
+    /**
+     * One page of the current user's food items, filtered and sorted server-side
+     * @param cursor nextCursor of the previous page, null for the first one
+     * @param size page size, capped at app.foods.page.max-size
+     * @return the page and the cursor of the next one (null on the last page)
+     */
+    public FoodPageDto listPage(FoodQuery query, FoodSort sort, Sort.Direction direction, String cursor, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        Object afterKey = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                KeysetCursor position = KeysetCursor.decode(cursor);
+                if (!position.sort().equals(sort.name()) || !position.direction().equals(direction.name())) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor was issued for another sort");
+                }
+                afterKey = sort.parseKey(position.key());
+                afterId = position.id();
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        Object key = afterKey;
+        Long id = afterId;
+        return dbBulkhead.call(() -> {
+            User currentUser = getCurrentUser();
+            // One extra row tells whether there is a next page
+            List<FoodItemSummary> rows = foodItemQueryRepository.findPage(
+                    currentUser.getId(), query, sort, direction, key, id, limit + 1);
+            List<FoodItemSummary> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+
+            Map<Long, List<String>> tagsByItem = foodItemQueryRepository.findTags(
+                    page.stream().map(FoodItemSummary::id).toList());
+            List<FoodDto> items = page.stream()
+                    .map(summary -> foodMapper.map(summary, tagsByItem.getOrDefault(summary.id(), List.of())))
+                    .toList();
+
+            String nextCursor = null;
+            if (rows.size() > limit) {
+                FoodItemSummary last = page.get(page.size() - 1);
+                nextCursor = new KeysetCursor(sort.name(), direction.name(), last.id(),
+                        String.valueOf(sort.keyOf(last))).encode();
+            }
+            return new FoodPageDto(items, nextCursor);
+        });
     }
 
     /**
@@ -229,19 +463,21 @@ public class FoodItemService {
      * @return Optional containing the food item if found
      */
     public Optional<FoodItem> listById(Long id) {
-        User currentUser = getCurrentUser();
-        Optional<FoodItem> foodItemOpt = foodItemRepository.findById(id);
-        
-        if (foodItemOpt.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item with id " + id + " not found");
-        }
-        
-        FoodItem foodItem = foodItemOpt.get();
-        if (foodItem.getUser() == null || !foodItem.getUser().getId().equals(currentUser.getId())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied to this food item");
-        }
-        
-        return foodItemOpt;
+        return dbBulkhead.call(() -> {
+            User currentUser = getCurrentUser();
+            Optional<FoodItem> foodItemOpt = foodItemRepository.findById(id);
+
+            if (foodItemOpt.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item with id " + id + " not found");
+            }
+
+            FoodItem foodItem = foodItemOpt.get();
+            if (foodItem.getUser() == null || !foodItem.getUser().getId().equals(currentUser.getId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied to this food item");
+            }
+
+            return foodItemOpt;
+        });
     }
 
     /**
@@ -263,7 +499,9 @@ public class FoodItemService {
         }
         
         foodItem.setUser(currentUser);
-        return foodItemRepository.save(foodItem);
+        FoodItem saved = foodItemRepository.save(foodItem);
+        recipeCache.invalidate(currentUser.getId());
+        return saved;
     }
 
     /**
@@ -278,6 +516,7 @@ public class FoodItemService {
             FoodItem existingItem = itemExistOpt.get();
             if (existingItem.getUser() != null && existingItem.getUser().getId().equals(currentUser.getId())) {
                 foodItemRepository.deleteById(id);
+                recipeCache.invalidate(currentUser.getId());
             } else {
                 throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access denied to this food item");
             }
@@ -0,0 +1,124 @@
+package com.otavio.aifoodapp.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.enums.FoodGroup;
+
+/**
+ * Builds schema-valid answers for the prompts sent by FoodAiService, NutritionBatcher and ChatService.
+ * Answers are derived from a hash of the prompt, so the same prompt always gets the same answer.
+ */
+@Service
+@Profile("maritaca-sim")
+public class MaritacaSimulatorService {
+
+    private static final Pattern SINGLE_ITEM = Pattern.compile("Name: (.+)\\n\\s*Quantity: (\\d+)");
+    private static final Pattern BATCH_ITEM = Pattern.compile("(?m)^(\\d+)\\. Name: (.+?), Quantity: (\\d+)$");
+
+    private static final String[] DISHES = {
+            "Omelete de legumes", "Arroz de forno", "Salada tropical", "Sopa de legumes",
+            "Frango grelhado com ervas", "Panqueca de banana", "Risoto de cogumelos", "Torta de liquidificador"
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public MaritacaSimulatorService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param prompt the content of the last user message
+     */
+    public String answer(String prompt) {
+        try {
+            if (prompt.contains("for each of the following food items")) {
+                return batchNutrition(prompt);
+            }
+            if (prompt.contains("Determine nutritional facts")) {
+                return singleNutrition(prompt);
+            }
+            if (prompt.contains("dishName")) {
+                return recipes(prompt);
+            }
+            return "Perfil nutricional simulado: refeição equilibrada, rica em proteínas e fibras. "
+                    + "Sugestão: acompanhe com vegetais frescos e reduza o sódio.";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize simulated answer", e);
+        }
+    }
+
+    private String singleNutrition(String prompt) throws JsonProcessingException {
+        Matcher matcher = SINGLE_ITEM.matcher(prompt);
+        if (!matcher.find()) {
+            return objectMapper.writeValueAsString(nutrition("item", 1, null));
+        }
+        return objectMapper.writeValueAsString(nutrition(matcher.group(1).trim(), parse(matcher, 2), null));
+    }
+
+    private String batchNutrition(String prompt) throws JsonProcessingException {
+        List<Map<String, Object>> answers = new ArrayList<>();
+        Matcher matcher = BATCH_ITEM.matcher(prompt);
+        while (matcher.find()) {
+            answers.add(nutrition(matcher.group(2).trim(), parse(matcher, 3), Integer.parseInt(matcher.group(1))));
+        }
+        return objectMapper.writeValueAsString(answers);
+    }
+
+    private Map<String, Object> nutrition(String name, int quantity, Integer index) {
+        int seed = name.toLowerCase().hashCode() & 0x7fffffff;
+        double perUnit = 20 + seed % 180;
+        FoodGroup[] groups = FoodGroup.values();
+
+        Map<String, Object> facts = new LinkedHashMap<>();
+        if (index != null) {
+            facts.put("index", index);
+        }
+        facts.put("calories", round(perUnit * quantity));
+        facts.put("protein", round((seed % 25) * quantity / 10.0));
+        facts.put("fat", round((seed % 15) * quantity / 10.0));
+        facts.put("carbohydrates", round((seed % 40) * quantity / 10.0));
+        facts.put("fiber", round((seed % 8) * quantity / 10.0));
+        facts.put("sugar", round((seed % 12) * quantity / 10.0));
+        facts.put("sodium", round((seed % 300) * quantity / 10.0));
+        facts.put("foodGroup", groups[seed % groups.length].name());
+        facts.put("tags", List.of("simulado", groups[seed % groups.length].getGroupName().toLowerCase()));
+        return facts;
+    }
+
+    private String recipes(String prompt) throws JsonProcessingException {
+        int seed = prompt.hashCode() & 0x7fffffff;
+        int count = 2 + seed % 2;
+        List<Map<String, Object>> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> recipe = new LinkedHashMap<>();
+            recipe.put("dishName", DISHES[(seed + i) % DISHES.length]);
+            recipe.put("prepTime", (15 + (seed + i * 7) % 45) + " minutos");
+            recipe.put("instructions", List.of("Separe e higienize os ingredientes", "Prepare conforme o tempo indicado", "Sirva em seguida"));
+            recipe.put("nutritionalInfo", List.of("Calorias: " + (250 + (seed + i) % 400) + " kcal", "Proteínas: " + (10 + (seed + i) % 30) + " g"));
+            recipes.add(recipe);
+        }
+        return objectMapper.writeValueAsString(recipes);
+    }
+
+    private static int parse(Matcher matcher, int group) {
+        try {
+            return Integer.parseInt(matcher.group(group));
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
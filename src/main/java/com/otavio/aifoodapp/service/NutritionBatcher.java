@@ -0,0 +1,259 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.otavio.aifoodapp.config.MaritacaChatClient;
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.mapper.NutritionMapper;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.util.Bulkhead;
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Opt-in micro-batching of nutrition lookups.
+ * Pending lookups are collected for a short window (or until the batch is full) and sent as a single
+ * prompt asking for a JSON array keyed by item index, so the long system prompt is paid once per batch.
+ */
+@Service
+public class NutritionBatcher {
+    private static final Logger log = LoggerFactory.getLogger(NutritionBatcher.class);
+
+    private final MaritacaChatClient maritacaChatClient;
+    private final NutritionMapper nutritionMapper;
+    private final Bulkhead aiBulkhead;
+
+    private final boolean enabled;
+    private final int maxItems;
+    private final Duration window;
+    private final int maxConcurrentBatches;
+
+    private final Counter batchedItems;
+    private final Counter fallbackItems;
+    private final DistributionSummary batchSize;
+
+    @Value("${maritaca.system.prompt}")
+    private String systemPrompt;
+
+    private volatile FluxSink<PendingLookup> pending;
+    private volatile Disposable pipeline;
+    private volatile boolean stopped;
+
+    public NutritionBatcher(MaritacaChatClient maritacaChatClient,
+                            NutritionMapper nutritionMapper,
+                            @Qualifier("aiBulkhead") Bulkhead aiBulkhead,
+                            MeterRegistry meterRegistry,
+                            @Value("${maritaca.nutrition.batch.enabled:false}") boolean enabled,
+                            @Value("${maritaca.nutrition.batch.max-items:10}") int maxItems,
+                            @Value("${maritaca.nutrition.batch.window-ms:50}") long windowMs,
+                            @Value("${maritaca.nutrition.batch.max-concurrent-batches:4}") int maxConcurrentBatches) {
+        this.maritacaChatClient = maritacaChatClient;
+        this.nutritionMapper = nutritionMapper;
+        this.aiBulkhead = aiBulkhead;
+        this.enabled = enabled;
+        this.maxItems = maxItems;
+        this.window = Duration.ofMillis(windowMs);
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.batchedItems = Counter.builder("nutrition.batch.items").tag("result", "batched").register(meterRegistry);
+        this.fallbackItems = Counter.builder("nutrition.batch.items").tag("result", "fallback").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("nutrition.batch.size").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        subscribe();
+        log.info("Nutrition batching enabled: up to {} items per {} ms window", maxItems, window.toMillis());
+    }
+
+    private void subscribe() {
+        // Fair backpressure: while every batch slot is busy, full or timed-out buffers wait for demand
+        // instead of failing the pipeline. Lookups dropped by a failed pipeline fall back individually
+        pipeline = Flux.<PendingLookup>create(sink -> this.pending = sink, FluxSink.OverflowStrategy.BUFFER)
+                .bufferTimeout(maxItems, window, true)
+                .flatMap(this::dispatch, maxConcurrentBatches)
+                .doOnDiscard(PendingLookup.class, lookup -> lookup.result().tryEmitEmpty())
+                .subscribe(null, this::restart);
+    }
+
+    private void restart(Throwable error) {
+        if (stopped) {
+            return;
+        }
+        log.error("Nutrition batching pipeline failed, restarting it", error);
+        subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        stopped = true;
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a lookup for the next batch.
+     * The fallback runs in the caller's own chain (context and deadline included) when the batch answer
+     * doesn't cover this item; a caller that cancels before dispatch is dropped from its batch
+     * @param fallback individual call used when the batch answer doesn't cover this item
+     */
+    public Mono<NutritionFacts> submit(FoodItem foodItem, Supplier<Mono<NutritionFacts>> fallback) {
+        RequestDeadline assembledOn = RequestDeadline.current().orElse(null);
+
+        return Mono.deferContextual(context -> {
+                    RequestDeadline deadline = context.<RequestDeadline>getOrEmpty(RequestDeadline.CONTEXT_KEY)
+                            .orElse(assembledOn);
+                    PendingLookup lookup = new PendingLookup(foodItem, deadline, Sinks.one(), Sinks.empty(), new AtomicBoolean());
+                    pending.next(lookup);
+                    return lookup.result().asMono()
+                            .doOnCancel(lookup::cancel);
+                })
+                .switchIfEmpty(Mono.defer(fallback));
+    }
+
+    /**
+     * Lookups the batch answer doesn't cover complete empty, so their callers fall back individually
+     */
+    private Mono<Void> dispatch(List<PendingLookup> queued) {
+        List<PendingLookup> batch = queued.stream()
+                .filter(lookup -> !lookup.abandoned().get())
+                .toList();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        batchSize.record(batch.size());
+        if (batch.size() == 1) {
+            // Nothing to share, skip the batch prompt format
+            batch.get(0).result().tryEmitEmpty();
+            return Mono.empty();
+        }
+
+        // Abandoned once every caller in the batch has cancelled
+        Mono<Void> allCancelled = Mono.when(batch.stream().map(lookup -> lookup.cancelled().asMono()).toList());
+
+        // The whole batch takes a single slot in the AI lane
+        return aiBulkhead.run(() -> maritacaChatClient.call(buildBatchPrompt(batch)))
+                .contextWrite(context -> earliestDeadline(batch)
+                        .map(deadline -> context.put(RequestDeadline.CONTEXT_KEY, deadline))
+                        .orElse(context))
+                .takeUntilOther(allCancelled)
+                .map(response -> response.getResult().getOutput().getText())
+                .map(nutritionMapper::parseIndexedNutritionFromJson)
+                .onErrorResume(AiServiceUnavailableException.class, e -> {
+                    // Individual calls would be rejected too, fail the whole batch fast
+                    batch.forEach(lookup -> lookup.result().tryEmitError(e));
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    log.warn("Batched nutrition lookup failed, falling back to individual calls: {}", e.getMessage());
+                    return Mono.just(Map.<Integer, NutritionFacts>of());
+                })
+                .doOnNext(factsByIndex -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        PendingLookup lookup = batch.get(i);
+                        NutritionFacts facts = factsByIndex.get(i);
+                        if (facts != null) {
+                            batchedItems.increment();
+                            lookup.result().tryEmitValue(facts);
+                        } else {
+                            fallbackItems.increment();
+                            lookup.result().tryEmitEmpty();
+                        }
+                    }
+                })
+                // Lookups left without an answer when the call is cancelled fall back individually
+                .doFinally(signal -> batch.forEach(lookup -> lookup.result().tryEmitEmpty()))
+                .then();
+    }
+
+    /**
+     * The batch call is bounded by the tightest deadline among its callers
+     */
+    private static Optional<RequestDeadline> earliestDeadline(List<PendingLookup> batch) {
+        return batch.stream()
+                .map(PendingLookup::deadline)
+                .filter(Objects::nonNull)
+                .min(Comparator.comparing(RequestDeadline::remaining));
+    }
+
+    private Prompt buildBatchPrompt(List<PendingLookup> batch) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            FoodItem foodItem = batch.get(i).foodItem();
+            items.append(i).append(". Name: ").append(foodItem.getName())
+                    .append(", Quantity: ").append(foodItem.getQuantity()).append('\n');
+        }
+
+        String promptText = """
+                Determine nutritional facts for each of the following food items:
+
+                %s
+                Provide a JSON array with one object per item, using this structure (all values should be numeric with no units):
+                {
+                  "index": item_index_from_the_list,
+                  "calories": numeric_value,
+                  "protein": numeric_value_in_grams,
+                  "fat": numeric_value_in_grams,
+                  "carbohydrates": numeric_value_in_grams,
+                  "fiber": numeric_value_in_grams,
+                  "sugar": numeric_value_in_grams,
+                  "sodium": numeric_value_in_milligrams,
+                  "foodGroup": "one_of_[FRUITS, VEGETABLES, GRAINS, PROTEIN, DAIRY, FATS_OILS, BEVERAGES, SWEETS_SNACKS]",
+                  "tags": ["tag1", "tag2"]
+                }
+
+                Note: Provide best estimates based on nutritional databases. The foodGroup must be one of the exact values listed.
+                """.formatted(items);
+
+        return new Prompt(List.of(
+                new SystemMessage(systemPrompt),
+                new UserMessage(promptText)
+        ));
+    }
+
+    private record PendingLookup(FoodItem foodItem,
+                                 RequestDeadline deadline,
+                                 Sinks.One<NutritionFacts> result,
+                                 Sinks.Empty<Void> cancelled,
+                                 AtomicBoolean abandoned) {
+
+        void cancel() {
+            abandoned.set(true);
+            cancelled.tryEmitEmpty();
+        }
+    }
+}
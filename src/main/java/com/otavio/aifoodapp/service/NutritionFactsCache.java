@@ -0,0 +1,149 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.model.NutritionCacheEntry;
+import com.otavio.aifoodapp.repository.NutritionCacheRepository;
+import com.otavio.aifoodapp.util.FoodNameNormalizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Two-tier cache for AI-determined nutrition facts.
+ * The in-process tier is a bounded Caffeine cache (W-TinyLFU, frequency-aware eviction),
+ * the persistent tier is tb_nutrition_cache so entries survive restarts and are shared between instances.
+ */
+@Service
+public class NutritionFactsCache {
+    private static final Logger log = LoggerFactory.getLogger(NutritionFactsCache.class);
+
+    private final NutritionCacheRepository nutritionCacheRepository;
+    private final Cache<String, CachedNutrition> memoryCache;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+
+    public NutritionFactsCache(NutritionCacheRepository nutritionCacheRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.cache.nutrition.max-entries:10000}") long maxEntries) {
+        this.nutritionCacheRepository = nutritionCacheRepository;
+        this.memoryCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        // cache.gets / cache.evictions / cache.size tagged with cache=nutrition-facts
+        CaffeineCacheMetrics.monitor(meterRegistry, memoryCache, "nutrition-facts");
+
+        this.memoryHits = Counter.builder("nutrition.cache.hits").tag("tier", "memory").register(meterRegistry);
+        this.databaseHits = Counter.builder("nutrition.cache.hits").tag("tier", "database").register(meterRegistry);
+        this.misses = Counter.builder("nutrition.cache.misses").register(meterRegistry);
+    }
+
+    /**
+     * Look up cached facts for a food name, scaled to the requested quantity
+     * @return the cached facts, or empty on a miss
+     */
+    public Mono<NutritionFacts> lookup(String foodName, Integer quantity) {
+        String key = cacheKey(foodName, quantity);
+        int requestedQuantity = quantity != null && quantity > 0 ? quantity : 1;
+
+        CachedNutrition cached = memoryCache.getIfPresent(key);
+        if (cached != null) {
+            memoryHits.increment();
+            return Mono.just(cached.scaledTo(requestedQuantity));
+        }
+
+        return Mono.fromCallable(() -> nutritionCacheRepository.findById(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .map(entry -> {
+                    CachedNutrition loaded = toCached(entry);
+                    memoryCache.put(key, loaded);
+                    databaseHits.increment();
+                    return loaded.scaledTo(requestedQuantity);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Nutrition cache lookup failed for '{}': {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .switchIfEmpty(Mono.fromRunnable(misses::increment));
+    }
+
+    /**
+     * Store facts returned by the LLM. The memory tier is updated immediately,
+     * the database write happens in the background so callers don't wait on it.
+     */
+    public void store(String foodName, Integer quantity, NutritionFacts facts) {
+        if (facts == null || facts.calories() == null) {
+            // Don't cache incomplete answers
+            return;
+        }
+        String key = cacheKey(foodName, quantity);
+        int sourceQuantity = quantity != null && quantity > 0 ? quantity : 1;
+        memoryCache.put(key, new CachedNutrition(facts, sourceQuantity));
+
+        NutritionCacheEntry entry = new NutritionCacheEntry(
+                key,
+                FoodNameNormalizer.canonicalize(foodName),
+                FoodNameNormalizer.quantityBucket(quantity),
+                sourceQuantity,
+                facts.calories(),
+                facts.protein(),
+                facts.fat(),
+                facts.carbohydrates(),
+                facts.fiber(),
+                facts.sugar(),
+                facts.sodium(),
+                facts.foodGroup(),
+                facts.tags() != null ? String.join(",", facts.tags()) : "",
+                OffsetDateTime.now()
+        );
+
+        Mono.fromRunnable(() -> nutritionCacheRepository.save(entry))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, e -> log.warn("Failed to persist nutrition cache entry '{}': {}", key, e.getMessage()));
+    }
+
+    static String cacheKey(String foodName, Integer quantity) {
+        return FoodNameNormalizer.canonicalize(foodName) + "#" + FoodNameNormalizer.quantityBucket(quantity);
+    }
+
+    private CachedNutrition toCached(NutritionCacheEntry entry) {
+        List<String> tags = entry.getTags() == null || entry.getTags().isBlank()
+                ? List.of()
+                : Arrays.asList(entry.getTags().split(","));
+        NutritionFacts facts = new NutritionFacts(
+                entry.getCalories(),
+                entry.getProtein(),
+                entry.getFat(),
+                entry.getCarbohydrates(),
+                entry.getFiber(),
+                entry.getSugar(),
+                entry.getSodium(),
+                entry.getFoodGroup(),
+                tags
+        );
+        return new CachedNutrition(facts, entry.getSourceQuantity() != null ? entry.getSourceQuantity() : 1);
+    }
+
+    private record CachedNutrition(NutritionFacts facts, int sourceQuantity) {
+        NutritionFacts scaledTo(int quantity) {
+            return facts.scaled((double) quantity / sourceQuantity);
+        }
+    }
+}
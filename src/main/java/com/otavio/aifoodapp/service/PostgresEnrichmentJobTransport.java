@@ -0,0 +1,94 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.otavio.aifoodapp.enums.EnrichmentJobStatus;
+import com.otavio.aifoodapp.model.EnrichmentJob;
+import com.otavio.aifoodapp.repository.EnrichmentJobRepository;
+
+/**
+ * Enrichment queue stored in tb_enrichment_job. Jobs are claimed with FOR UPDATE SKIP LOCKED and held
+ * by a lease, so replicas share the work and a crashed worker's jobs become claimable again.
+ * Each claim increments the job's attempts, which fences settling: a worker whose lease ran out
+ * can't overwrite the outcome of the worker that claimed the job after it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.enrichment.queue.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresEnrichmentJobTransport implements EnrichmentJobTransport {
+
+    private final EnrichmentJobRepository enrichmentJobRepository;
+    private final Duration lease;
+
+    public PostgresEnrichmentJobTransport(EnrichmentJobRepository enrichmentJobRepository,
+                                          @Value("${app.enrichment.queue.lease-ms:180000}") long leaseMs) {
+        this.enrichmentJobRepository = enrichmentJobRepository;
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(Long foodItemId) {
+        enrichmentJobRepository.save(EnrichmentJob.pending(foodItemId));
+    }
+
+    @Override
+    @Transactional
+    public void enqueueAll(List<Long> foodItemIds) {
+        if (!foodItemIds.isEmpty()) {
+            enrichmentJobRepository.insertPending(foodItemIds);
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<EnrichmentJob> claim(int max) {
+        List<EnrichmentJob> jobs = enrichmentJobRepository.findClaimable(max);
+        OffsetDateTime lockedUntil = OffsetDateTime.now().plus(lease);
+        for (EnrichmentJob job : jobs) {
+            job.setStatus(EnrichmentJobStatus.PROCESSING);
+            job.setLockedUntil(lockedUntil);
+            job.setAttempts(job.getAttempts() + 1);
+        }
+        // Flushed on commit, which releases the row locks
+        return jobs;
+    }
+
+    @Override
+    @Transactional
+    public boolean complete(EnrichmentJob job) {
+        return enrichmentJobRepository.deleteClaimed(job.getId(), job.getAttempts()) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean retry(EnrichmentJob job, Duration delay, String error) {
+        return enrichmentJobRepository.release(job.getId(), job.getAttempts(),
+                EnrichmentJobStatus.PENDING, OffsetDateTime.now().plus(delay), error) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean deadLetter(EnrichmentJob job, String error) {
+        return enrichmentJobRepository.release(job.getId(), job.getAttempts(),
+                EnrichmentJobStatus.DEAD, job.getAvailableAt(), error) > 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public QueueStats stats() {
+        long depth = enrichmentJobRepository.countByStatusIn(
+                EnumSet.of(EnrichmentJobStatus.PENDING, EnrichmentJobStatus.PROCESSING));
+        long dead = enrichmentJobRepository.countByStatus(EnrichmentJobStatus.DEAD);
+        OffsetDateTime oldest = enrichmentJobRepository.findOldestCreatedAtExcluding(EnrichmentJobStatus.DEAD);
+        Duration lag = oldest != null ? Duration.between(oldest, OffsetDateTime.now()) : Duration.ZERO;
+        return new QueueStats(depth, dead, lag.isNegative() ? Duration.ZERO : lag);
+    }
+}
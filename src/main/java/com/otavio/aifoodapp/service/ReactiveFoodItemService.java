@@ -0,0 +1,154 @@
+package com.otavio.aifoodapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.model.User;
+import com.otavio.aifoodapp.model.reactive.FoodItemRow;
+import com.otavio.aifoodapp.model.reactive.FoodItemTagRow;
+import com.otavio.aifoodapp.model.reactive.UserRow;
+import com.otavio.aifoodapp.repository.reactive.ReactiveFoodItemRepository;
+import com.otavio.aifoodapp.repository.reactive.ReactiveUserRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of FoodItemService for the "reactive" profile: R2DBC persistence and
+ * reactive AI enrichment, so no thread is held while an item waits for the model.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveFoodItemService {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveFoodItemService.class);
+
+    private final ReactiveFoodItemRepository foodItemRepository;
+    private final ReactiveUserRepository userRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final FoodItemService foodItemService;
+    private final RecipeCache recipeCache;
+
+    public ReactiveFoodItemService(ReactiveFoodItemRepository foodItemRepository, ReactiveUserRepository userRepository,
+                                   TransactionalOperator transactionalOperator, FoodItemService foodItemService,
+                                   RecipeCache recipeCache) {
+        this.foodItemRepository = foodItemRepository;
+        this.userRepository = userRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.foodItemService = foodItemService;
+        this.recipeCache = recipeCache;
+    }
+
+    /**
+     * Id of the authenticated user. The security context is read when this is called,
+     * so call it on the request thread
+     */
+    public Mono<Long> currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated"));
+        }
+        if (authentication.getPrincipal() instanceof User user && user.getId() != null) {
+            return Mono.just(user.getId());
+        }
+        String username = authentication.getName();
+        return userRepository.findFirstByEmailOrLogin(username, username)
+                .map(UserRow::id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                        "User not found with identifier: " + username)));
+    }
+
+    public Mono<List<FoodItem>> listAll(Long userId) {
+        return foodItemRepository.findByUserIdOrderByIdAsc(userId)
+                .collectList()
+                .flatMap(this::withTags);
+    }
+
+    public Mono<FoodItem> findById(Long id, Long userId) {
+        return foodItemRepository.findByIdAndUserId(id, userId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item with id " + id + " not found")))
+                .flatMap(row -> withTags(List.of(row)))
+                .map(items -> items.get(0));
+    }
+
+    /**
+     * Enrich and save an item (insert, or update when it has an id). Items the AI could not enrich in time
+     * are saved PARTIAL and queued, as in the servlet stack. The request deadline must be in the
+     * subscriber context (RequestDeadline.propagate() on the request thread)
+     */
+    public Mono<FoodItem> saveWithAiEnhancement(FoodItem foodItem, Long userId) {
+        return foodItemService.enrich(foodItem)
+                .flatMap(result -> persist(result.foodItem(), userId));
+    }
+
+    /**
+     * Save the item as PENDING without waiting for the AI; the EnrichmentWorker fills it in
+     */
+    public Mono<FoodItem> saveForEnrichment(FoodItem foodItem, Long userId) {
+        foodItem.setEnrichmentStatus(EnrichmentStatus.PENDING);
+        return persist(foodItem, userId);
+    }
+
+    public Mono<Void> delete(Long id, Long userId) {
+        return foodItemRepository.findByIdAndUserId(id, userId)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Item with id " + id + " not found")))
+                .flatMap(row -> foodItemRepository.deleteTags(row.id())
+                        .then(foodItemRepository.deleteById(row.id())))
+                .as(transactionalOperator::transactional)
+                .doOnSuccess(done -> recipeCache.invalidate(userId));
+    }
+
+    private Mono<FoodItem> persist(FoodItem item, Long userId) {
+        List<String> tags = item.getTags() != null ? item.getTags() : List.of();
+        boolean update = item.getId() != null;
+
+        return foodItemRepository.save(FoodItemRow.from(item, userId))
+                .flatMap(row -> (update ? foodItemRepository.deleteTags(row.id()) : Mono.just(0))
+                        .thenMany(Flux.fromIterable(tags).concatMap(tag -> foodItemRepository.insertTag(row.id(), tag)))
+                        .then(needsEnrichment(row) ? foodItemRepository.enqueueEnrichment(row.id()).then() : Mono.<Void>empty())
+                        .thenReturn(row.toFoodItem(tags)))
+                .as(transactionalOperator::transactional)
+                .doOnNext(saved -> {
+                    log.debug("Saved food item {} ({})", saved.getId(), saved.getEnrichmentStatus());
+                    recipeCache.invalidate(userId);
+                });
+    }
+
+    private static boolean needsEnrichment(FoodItemRow row) {
+        return row.enrichmentStatus() == EnrichmentStatus.PENDING || row.enrichmentStatus() == EnrichmentStatus.PARTIAL;
+    }
+
+    /**
+     * Load the tags of all rows in one query
+     */
+    private Mono<List<FoodItem>> withTags(List<FoodItemRow> rows) {
+        if (rows.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return foodItemRepository.findTags(rows.stream().map(FoodItemRow::id).toList())
+                .collect(Collectors.groupingBy(FoodItemTagRow::foodItemId,
+                        Collectors.mapping(FoodItemTagRow::tag, Collectors.toList())))
+                .map(tagsByItem -> toFoodItems(rows, tagsByItem));
+    }
+
+    private static List<FoodItem> toFoodItems(List<FoodItemRow> rows, Map<Long, List<String>> tagsByItem) {
+        List<FoodItem> items = new ArrayList<>(rows.size());
+        for (FoodItemRow row : rows) {
+            items.add(row.toFoodItem(tagsByItem.getOrDefault(row.id(), List.of())));
+        }
+        return items;
+    }
+}
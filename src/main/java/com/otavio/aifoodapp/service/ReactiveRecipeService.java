@@ -0,0 +1,69 @@
+package com.otavio.aifoodapp.service;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.otavio.aifoodapp.dto.RecipeDto;
+import com.otavio.aifoodapp.model.Recipe;
+import com.otavio.aifoodapp.model.reactive.RecipeRow;
+import com.otavio.aifoodapp.repository.reactive.ReactiveRecipeRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of RecipeService for the "reactive" profile
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRecipeService {
+
+    private final ReactiveRecipeRepository recipeRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveRecipeService(ReactiveRecipeRepository recipeRepository, TransactionalOperator transactionalOperator) {
+        this.recipeRepository = recipeRepository;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Save generated recipes with their instructions and nutritional info in one transaction
+     */
+    public Mono<List<RecipeDto>> saveAll(List<Recipe> recipes, Long userId) {
+        return Flux.fromIterable(recipes)
+                .concatMap(recipe -> save(recipe, userId))
+                .collectList()
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<RecipeDto> save(Recipe recipe, Long userId) {
+        List<String> instructions = recipe.getInstructions() != null ? recipe.getInstructions() : List.of();
+        List<String> nutritionalInfo = recipe.getNutritionalInfo() != null ? recipe.getNutritionalInfo() : List.of();
+
+        return recipeRepository.save(RecipeRow.from(recipe, userId))
+                .flatMap(row -> Flux.range(0, instructions.size())
+                        .concatMap(step -> recipeRepository.insertInstruction(row.id(), step, instructions.get(step)))
+                        .thenMany(Flux.fromIterable(nutritionalInfo)
+                                .concatMap(info -> recipeRepository.insertNutritionalInfo(row.id(), info)))
+                        .then(Mono.fromSupplier(() -> new RecipeDto(row.id(), row.name(), row.description(),
+                                nutritionalInfo, instructions, new HashSet<>()))));
+    }
+
+    /**
+     * Recipe with its instructions and nutritional info, detached, as input for the AI analysis
+     */
+    public Mono<Recipe> findById(Long id) {
+        return recipeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe with id " + id + " not found")))
+                .flatMap(row -> Mono.zip(
+                                recipeRepository.findInstructions(id).collectList(),
+                                recipeRepository.findNutritionalInfo(id).collectList())
+                        .map(children -> row.toRecipe(children.getT1(), children.getT2())));
+    }
+}
@@ -0,0 +1,84 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.otavio.aifoodapp.dto.RecipeDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Last generated recipe set per user, tagged with the pantry fingerprint it was generated for.
+ * A lookup only hits when the fingerprint still matches; the entry is dropped whenever the user's pantry changes.
+ */
+@Service
+public class RecipeCache {
+
+    private final Cache<Long, CachedRecipes> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleServed;
+
+    public RecipeCache(MeterRegistry meterRegistry,
+                       @Value("${app.cache.recipes.max-entries:5000}") long maxEntries,
+                       @Value("${app.cache.recipes.ttl-minutes:1440}") long ttlMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "generated-recipes");
+
+        this.hits = Counter.builder("recipes.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("recipes.cache.misses").register(meterRegistry);
+        this.staleServed = Counter.builder("recipes.cache.stale-served").register(meterRegistry);
+    }
+
+    public Optional<List<RecipeDto>> get(Long userId, String fingerprint) {
+        CachedRecipes cached = cache.getIfPresent(userId);
+        if (cached != null && cached.fingerprint().equals(fingerprint)) {
+            hits.increment();
+            return Optional.of(cached.recipes());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Last recipes generated for the user, ignoring the fingerprint (e.g. when a refresh was forced).
+     * Only meant as a degraded answer while the AI is unavailable
+     */
+    public Optional<List<RecipeDto>> getStale(Long userId) {
+        CachedRecipes cached = cache.getIfPresent(userId);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        staleServed.increment();
+        return Optional.of(cached.recipes());
+    }
+
+    public void put(Long userId, String fingerprint, List<RecipeDto> recipes) {
+        if (recipes.isEmpty()) {
+            // An empty set usually means the model answer could not be parsed
+            return;
+        }
+        cache.put(userId, new CachedRecipes(fingerprint, List.copyOf(recipes)));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private record CachedRecipes(String fingerprint, List<RecipeDto> recipes) {
+    }
+}
@@ -0,0 +1,251 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.otavio.aifoodapp.dto.RecipeDto;
+import com.otavio.aifoodapp.dto.RecipeJobDto;
+import com.otavio.aifoodapp.enums.RecipeJobStatus;
+import com.otavio.aifoodapp.enums.RecipeJobType;
+import com.otavio.aifoodapp.exception.AiServiceUnavailableException;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.model.Recipe;
+import com.otavio.aifoodapp.util.PantryFingerprint;
+import com.otavio.aifoodapp.util.RequestDeadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Job-style recipe generation and analysis: submit returns at once, the work runs on a bounded executor
+ * and clients fetch (or long-poll) the result, which is kept for a retention window so reconnecting
+ * clients don't trigger new AI calls. Jobs live in memory, on the instance that accepted them.
+ */
+@Service
+public class RecipeJobService {
+    private static final Logger log = LoggerFactory.getLogger(RecipeJobService.class);
+
+    private static final Duration QUEUE_FULL_RETRY_AFTER = Duration.ofSeconds(5);
+
+    private final ChatService chatService;
+    private final RecipeService recipeService;
+    private final RecipeCache recipeCache;
+
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, RecipeJob> jobs;
+    // Queued or running jobs per user; users without any have no entry
+    private final Map<Long, Integer> activeByUser = new ConcurrentHashMap<>();
+    private final int maxPerUser;
+    private final Duration budget;
+
+    private final Counter rejectedUserCap;
+    private final Counter rejectedQueueFull;
+
+    public RecipeJobService(ChatService chatService, RecipeService recipeService, RecipeCache recipeCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.recipes.jobs.workers:8}") int workers,
+                            @Value("${app.recipes.jobs.queue-capacity:100}") int queueCapacity,
+                            @Value("${app.recipes.jobs.max-per-user:2}") int maxPerUser,
+                            @Value("${app.recipes.jobs.retention-minutes:30}") long retentionMinutes,
+                            @Value("${app.recipes.jobs.max-retained:10000}") long maxRetained,
+                            @Value("${app.recipes.jobs.budget-ms:60000}") long budgetMs,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.chatService = chatService;
+        this.recipeService = recipeService;
+        this.recipeCache = recipeCache;
+        // The pool size bounds concurrency in both modes, virtual threads only make parked workers cheap
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("recipe-job-", 1).factory()
+                : new CustomizableThreadFactory("recipe-job-");
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        // Counted from submission and again from completion, so finished results stay for the whole window
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .maximumSize(maxRetained)
+                .build();
+        this.maxPerUser = maxPerUser;
+        this.budget = Duration.ofMillis(budgetMs);
+
+        Gauge.builder("recipes.jobs.queued", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("recipes.jobs.running", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.rejectedUserCap = Counter.builder("recipes.jobs.rejected").tag("reason", "user-cap").register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("recipes.jobs.rejected").tag("reason", "queue-full").register(meterRegistry);
+    }
+
+    /**
+     * Generate recipes for a pantry in the background, with the same fingerprint cache as /gen
+     */
+    public RecipeJobDto submitGeneration(Long userId, List<FoodItem> foodItems, boolean refresh) {
+        String fingerprint = PantryFingerprint.of(foodItems, LocalDate.now());
+
+        return submit(userId, RecipeJobType.GENERATE, () -> {
+            if (!refresh) {
+                Optional<List<RecipeDto>> cached = recipeCache.get(userId, fingerprint);
+                if (cached.isPresent()) {
+                    return cached.get();
+                }
+            }
+            try {
+                List<Recipe> generated = withBudget(chatService.generateRecipe(foodItems)).block();
+                List<RecipeDto> recipes = recipeService.saveAndMapToDto(generated != null ? generated : List.of(), userId);
+                recipeCache.put(userId, fingerprint, recipes);
+                return recipes;
+            } catch (AiServiceUnavailableException e) {
+                return recipeCache.getStale(userId).orElseThrow(() -> e);
+            }
+        });
+    }
+
+    public RecipeJobDto submitAnalysis(Long userId, Recipe recipe) {
+        return submit(userId, RecipeJobType.ANALYZE,
+                () -> withBudget(chatService.analyzeNutritionalProfile(recipe)).block());
+    }
+
+    /**
+     * Current state of a job, waiting up to wait for it to finish
+     */
+    public Mono<RecipeJobDto> await(String jobId, Long userId, Duration wait) {
+        RecipeJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe job " + jobId + " not found");
+        }
+        if (job.done.isDone() || wait.isZero()) {
+            return Mono.just(toDto(job));
+        }
+        // suppressCancel: a client giving up on the poll must not affect the job
+        return Mono.fromFuture(job.done, true)
+                .timeout(wait, Mono.empty())
+                .then(Mono.fromSupplier(() -> toDto(job)));
+    }
+
+    private RecipeJobDto submit(Long userId, RecipeJobType type, Callable<Object> work) {
+        if (!reserveSlot(userId)) {
+            rejectedUserCap.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "At most " + maxPerUser + " recipe jobs can run at a time");
+        }
+
+        RecipeJob job = new RecipeJob(UUID.randomUUID().toString(), userId, type);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            releaseSlot(userId);
+            jobs.invalidate(job.id);
+            rejectedQueueFull.increment();
+            throw new AiServiceUnavailableException("Recipe job queue is full", QUEUE_FULL_RETRY_AFTER);
+        }
+        return toDto(job);
+    }
+
+    private boolean reserveSlot(Long userId) {
+        boolean[] reserved = {false};
+        activeByUser.compute(userId, (id, active) -> {
+            int current = active == null ? 0 : active;
+            if (current >= maxPerUser) {
+                return active;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    /**
+     * The entry goes away with the user's last job, so the map only holds users with work in flight
+     */
+    private void releaseSlot(Long userId) {
+        activeByUser.computeIfPresent(userId, (id, active) -> active > 1 ? active - 1 : null);
+    }
+
+    private void run(RecipeJob job, Callable<Object> work) {
+        job.status = RecipeJobStatus.RUNNING;
+        try {
+            job.result = work.call();
+            job.status = RecipeJobStatus.SUCCEEDED;
+        } catch (Exception e) {
+            Throwable cause = Exceptions.unwrap(e);
+            log.warn("Recipe job {} ({}) failed: {}", job.id, job.type, cause.getMessage());
+            job.error = errorCode(cause);
+            job.status = RecipeJobStatus.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            releaseSlot(job.userId);
+            jobs.put(job.id, job);
+            job.done.complete(null);
+        }
+    }
+
+    private <T> Mono<T> withBudget(Mono<T> call) {
+        // There is no request to inherit a deadline from, each job gets its own budget
+        return call.contextWrite(context -> context.put(RequestDeadline.CONTEXT_KEY, RequestDeadline.after(budget)));
+    }
+
+    private static String errorCode(Throwable error) {
+        if (error instanceof AiServiceUnavailableException) {
+            return "ai_service_unavailable";
+        }
+        if (error instanceof TimeoutException) {
+            return "deadline_exceeded";
+        }
+        return "job_failed";
+    }
+
+    private static RecipeJobDto toDto(RecipeJob job) {
+        return new RecipeJobDto(job.id, job.type.name(), job.status.name(), job.result, job.error,
+                job.createdAt, job.finishedAt);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class RecipeJob {
+        private final String id;
+        private final Long userId;
+        private final RecipeJobType type;
+        private final Instant createdAt = Instant.now();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private volatile RecipeJobStatus status = RecipeJobStatus.QUEUED;
+        private volatile Object result;
+        private volatile String error;
+        private volatile Instant finishedAt;
+
+        private RecipeJob(String id, Long userId, RecipeJobType type) {
+            this.id = id;
+            this.userId = userId;
+            this.type = type;
+        }
+    }
+}
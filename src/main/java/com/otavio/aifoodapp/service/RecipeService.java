@@ -3,10 +3,10 @@ package com.otavio.aifoodapp.service;
 import com.otavio.aifoodapp.dto.RecipeDto;
 import com.otavio.aifoodapp.mapper.RecipeMapper;
 import com.otavio.aifoodapp.model.Recipe;
-import com.otavio.aifoodapp.model.RecipeIngredient;
 import com.otavio.aifoodapp.repository.RecipeRepository;
+import com.otavio.aifoodapp.util.Bulkhead;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.transaction.annotation.Transactional;
-import org.hibernate.Hibernate;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
@@ -18,11 +18,16 @@ import java.util.Optional;
 public class RecipeService {
     private final RecipeRepository recipeRepository;
     private final RecipeMapper recipeMapper;
+    private final AiResponseStore aiResponseStore;
+    private final Bulkhead dbBulkhead;
 
 
-    public RecipeService(RecipeRepository recipeRepository, RecipeMapper recipeMapper) {
+    public RecipeService(RecipeRepository recipeRepository, RecipeMapper recipeMapper, AiResponseStore aiResponseStore,
+                         @Qualifier("dbBulkhead") Bulkhead dbBulkhead) {
         this.recipeRepository = recipeRepository;
         this.recipeMapper = recipeMapper;
+        this.aiResponseStore = aiResponseStore;
+        this.dbBulkhead = dbBulkhead;
     }
 
 
@@ -35,11 +40,11 @@ public class RecipeService {
     }
 
     public List<Recipe> listAll() {
-        return recipeRepository.findAll();
+        return dbBulkhead.call(() -> recipeRepository.findAll());
     }
 
     public Optional<Recipe> findById(Long id) {
-        Optional<Recipe> idExists = recipeRepository.findById(id);
+        Optional<Recipe> idExists = dbBulkhead.call(() -> recipeRepository.findById(id));
         if (idExists.isPresent()) {
             return idExists;
         } else {
@@ -51,29 +56,27 @@ public class RecipeService {
         Optional<Recipe> recipeExists = recipeRepository.findById(recipe.getId());
 
         if (recipeExists.isPresent()) {
-            return recipeRepository.save(recipe);
+            Recipe updated = recipeRepository.save(recipe);
+            // Stored analyses describe the old version of the recipe
+            aiResponseStore.invalidateRecipe(updated.getId());
+            return updated;
         } else {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recipe with id " + recipe.getId() + " not found");
         }
 
     }
 
+    /**
+     * Persist generated recipes and map them from their in-memory state.
+     * Ids come from the pooled sequences at persist time, so recipes, ordered instructions, nutritional info and
+     * ingredients are written as one JDBC batch per table on commit, and nothing is read back
+     */
     @Transactional
-    public List<RecipeDto> saveAndMapToDto(List<Recipe> recipes) {
+    public List<RecipeDto> saveAndMapToDto(List<Recipe> recipes, Long userId) {
+        recipes.forEach(recipe -> recipe.setUserId(userId));
 
         List<Recipe> savedRecipes = recipeRepository.saveAll(recipes);
 
-
-        for (Recipe recipe : savedRecipes) {
-            Hibernate.initialize(recipe.getInstructions());
-            Hibernate.initialize(recipe.getNutritionalInfo());
-            Hibernate.initialize(recipe.getIngredientsList());
-            for (RecipeIngredient ingredient : recipe.getIngredientsList()) {
-                Hibernate.initialize(ingredient.getFoodItem());
-            }
-        }
-
-
         return recipeMapper.toDto(savedRecipes);
     }
 }
@@ -0,0 +1,87 @@
+package com.otavio.aifoodapp.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * AIMD concurrency limiter.
+ * The limit grows by roughly one per round of calls finishing under the latency threshold
+ * and is cut multiplicatively when a call is slow or fails, so concurrency follows what the upstream can take.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final Counter rejected;
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * @param metricPrefix registers {prefix}.limit, {prefix}.in-flight and {prefix}.rejected
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio,
+                                      MeterRegistry meterRegistry, String metricPrefix) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.rejected = Counter.builder(metricPrefix + ".rejected").register(meterRegistry);
+        Gauge.builder(metricPrefix + ".limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder(metricPrefix + ".in-flight", this, AdaptiveConcurrencyLimiter::getInFlight).register(meterRegistry);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Release a permit whose call completed, adapting the limit to its latency
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        inFlight--;
+        if (latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlight + 1 >= limit / 2) {
+            // Only grow while the limit is actually being used
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /**
+     * Release a permit whose call failed because of the upstream
+     */
+    public synchronized void onDropped() {
+        inFlight--;
+        decrease();
+    }
+
+    /**
+     * Release a permit without adapting the limit (cancelled or caller-side failure)
+     */
+    public synchronized void onIgnore() {
+        inFlight--;
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
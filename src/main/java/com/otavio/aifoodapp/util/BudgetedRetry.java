@@ -0,0 +1,57 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import io.micrometer.core.instrument.Counter;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Exponential backoff with jitter that only retries while the request deadline leaves room for the wait.
+ */
+public final class BudgetedRetry {
+
+    private final int maxRetries;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Predicate<Throwable> retryable;
+    private final Counter retries;
+
+    public BudgetedRetry(int maxRetries, Duration baseBackoff, Duration maxBackoff,
+                         Predicate<Throwable> retryable, Counter retries) {
+        this.maxRetries = maxRetries;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retryable = retryable;
+        this.retries = retries;
+    }
+
+    public Retry within(RequestDeadline deadline) {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            long attempt = signal.totalRetries();
+            if (attempt >= maxRetries || !retryable.test(failure)) {
+                return Mono.error(failure);
+            }
+            Duration backoff = backoff(attempt);
+            if (backoff.compareTo(deadline.remaining()) >= 0) {
+                // Waiting would eat the rest of the budget, give up now
+                return Mono.error(failure);
+            }
+            retries.increment();
+            return Mono.delay(backoff);
+        }));
+    }
+
+    /**
+     * Equal jitter: half of the exponential step is fixed, the other half random
+     */
+    private Duration backoff(long attempt) {
+        long exponential = baseBackoff.toMillis() << Math.min(attempt, 20);
+        long capped = Math.min(exponential, maxBackoff.toMillis());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
@@ -0,0 +1,184 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounded execution lane: at most maxConcurrent calls run at once and at most maxQueued wait for a slot, for up to maxWait.
+ * Anything beyond that is rejected at once, so one slow dependency can't take every request thread with it.
+ * Reactive callers wait without holding a thread, blocking callers park on the permit.
+ */
+public final class Bulkhead {
+
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final String lane;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final Function<String, ? extends RuntimeException> rejection;
+
+    private final ArrayDeque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private int active;
+
+    private final Timer queueTime;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedWaitTimeout;
+
+    /**
+     * Registers bulkhead.active, bulkhead.queued, bulkhead.saturation, bulkhead.queue-time and
+     * bulkhead.rejected{reason}, all tagged with the lane
+     * @param rejection builds the exception thrown when a call is turned away
+     */
+    public Bulkhead(String lane, int maxConcurrent, int maxQueued, Duration maxWait,
+                    Function<String, ? extends RuntimeException> rejection, MeterRegistry meterRegistry) {
+        this.lane = lane;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWait = maxWait;
+        this.rejection = rejection;
+        this.queueTime = Timer.builder("bulkhead.queue-time").tag("lane", lane).register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("bulkhead.rejected")
+                .tag("lane", lane).tag("reason", "queue-full").register(meterRegistry);
+        this.rejectedWaitTimeout = Counter.builder("bulkhead.rejected")
+                .tag("lane", lane).tag("reason", "wait-timeout").register(meterRegistry);
+        Gauge.builder("bulkhead.active", this, Bulkhead::getActive).tag("lane", lane).register(meterRegistry);
+        Gauge.builder("bulkhead.queued", this, Bulkhead::getQueued).tag("lane", lane).register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, bulkhead -> (double) bulkhead.getActive() / bulkhead.maxConcurrent)
+                .tag("lane", lane).register(meterRegistry);
+    }
+
+    /**
+     * Run a blocking call in the lane, parking the calling thread while it waits for a slot
+     */
+    public <T> T call(Supplier<T> work) {
+        long start = System.nanoTime();
+        CompletableFuture<Void> permit = acquire();
+        if (!permit.isDone()) {
+            try {
+                permit.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                abandon(permit);
+                throw timedOut();
+            } catch (InterruptedException e) {
+                abandon(permit);
+                Thread.currentThread().interrupt();
+                throw rejection.apply("Interrupted waiting for the " + lane + " lane");
+            } catch (ExecutionException e) {
+                // Permits are only ever completed normally
+                abandon(permit);
+                throw new IllegalStateException(e);
+            }
+        }
+        queueTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        try {
+            return work.get();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Run a reactive call in the lane; the slot is held until the call terminates or is cancelled
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> work) {
+        return Mono.usingWhen(permit(), granted -> work.get(), granted -> Mono.fromRunnable(this::release));
+    }
+
+    /**
+     * Streams hold their slot until they terminate
+     */
+    public <T> Flux<T> runMany(Supplier<Flux<T>> work) {
+        return Flux.usingWhen(permit(), granted -> work.get(), granted -> Mono.fromRunnable(this::release));
+    }
+
+    private Mono<Boolean> permit() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            CompletableFuture<Void> permit = acquire();
+            if (permit.isDone()) {
+                queueTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return Mono.just(true);
+            }
+            return Mono.fromFuture(permit, true)
+                    // Fires on the wait timeout too, which cancels upstream
+                    .doOnCancel(() -> abandon(permit))
+                    .timeout(maxWait)
+                    .onErrorMap(TimeoutException.class, e -> timedOut())
+                    .then(Mono.fromCallable(() -> {
+                        queueTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        return true;
+                    }));
+        });
+    }
+
+    /**
+     * @return a completed future when a slot is free, otherwise a queued waiter completed on hand-off
+     */
+    private synchronized CompletableFuture<Void> acquire() {
+        if (active < maxConcurrent) {
+            active++;
+            return GRANTED;
+        }
+        if (waiting.size() >= maxQueued) {
+            rejectedQueueFull.increment();
+            throw rejection.apply("The " + lane + " lane is full (" + active + " running, " + waiting.size() + " waiting)");
+        }
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiting.add(waiter);
+        return waiter;
+    }
+
+    private void release() {
+        CompletableFuture<Void> next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                active--;
+            }
+        }
+        // The slot passes straight to the next waiter, active stays the same
+        if (next != null) {
+            next.complete(null);
+        }
+    }
+
+    /**
+     * Give up a wait; a waiter that was handed the slot in the meantime passes it on
+     */
+    private void abandon(CompletableFuture<Void> waiter) {
+        boolean stillWaiting;
+        synchronized (this) {
+            stillWaiting = waiting.remove(waiter);
+        }
+        if (!stillWaiting) {
+            release();
+        }
+    }
+
+    private RuntimeException timedOut() {
+        rejectedWaitTimeout.increment();
+        return rejection.apply("Timed out after " + maxWait.toMillis() + " ms waiting for the " + lane + " lane");
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+}
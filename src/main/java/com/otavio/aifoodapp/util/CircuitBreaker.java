@@ -0,0 +1,199 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Count-based circuit breaker.
+ * Opens when the failure rate or the slow-call rate over the last calls crosses its threshold,
+ * rejects everything while open, then lets a few probe calls through (half-open) to decide whether to close.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final Counter rejected;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int recorded;
+    private int position;
+    private int failures;
+    private int slow;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param metricPrefix registers {prefix}.state (0 closed, 1 open, 2 half-open) and {prefix}.rejected
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls,
+                          double failureRateThreshold, double slowCallRateThreshold, long slowCallThresholdNanos,
+                          Duration openDuration, int halfOpenCalls,
+                          MeterRegistry meterRegistry, String metricPrefix) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallThresholdNanos = slowCallThresholdNanos;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+        this.rejected = Counter.builder(metricPrefix + ".rejected").register(meterRegistry);
+        Gauge.builder(metricPrefix + ".state", this, breaker -> breaker.getState().ordinal()).register(meterRegistry);
+    }
+
+    /**
+     * Admission ticket of one call, hand it back through onSuccess, onError or onIgnore.
+     * Remembers the breaker period it was issued in, so outcomes of calls admitted before a state change
+     * (e.g. admitted while closed, finishing while half-open) do not count towards the new state.
+     */
+    public static final class Permit {
+        private final long generation;
+        private final boolean probe;
+
+        private Permit(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+
+        public boolean isProbe() {
+            return probe;
+        }
+    }
+
+    /**
+     * @return the permit for the call, or null when the call is rejected
+     */
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                rejected.increment();
+                return null;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= halfOpenCalls) {
+                rejected.increment();
+                return null;
+            }
+            halfOpenInFlight++;
+            return new Permit(generation, true);
+        }
+        return new Permit(generation, false);
+    }
+
+    public synchronized void onSuccess(Permit permit, long latencyNanos) {
+        if (isStale(permit)) {
+            return;
+        }
+        boolean slowCall = latencyNanos > slowCallThresholdNanos;
+        if (permit.probe) {
+            halfOpenInFlight--;
+            if (slowCall) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false, slowCall);
+    }
+
+    public synchronized void onError(Permit permit) {
+        if (isStale(permit)) {
+            return;
+        }
+        if (permit.probe) {
+            halfOpenInFlight--;
+            open();
+            return;
+        }
+        record(true, false);
+    }
+
+    /**
+     * Release an acquired call without recording an outcome
+     */
+    public synchronized void onIgnore(Permit permit) {
+        if (!isStale(permit) && permit.probe) {
+            halfOpenInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * Time left until the breaker lets probe calls through again, zero when not open
+     */
+    public synchronized Duration remainingOpenTime() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, openDurationNanos - (System.nanoTime() - openedAt)));
+    }
+
+    private void record(boolean failed, boolean slowCall) {
+        if (recorded == windowSize) {
+            if (failedCalls[position]) failures--;
+            if (slowCalls[position]) slow--;
+        } else {
+            recorded++;
+        }
+        failedCalls[position] = failed;
+        slowCalls[position] = slowCall;
+        if (failed) failures++;
+        if (slowCall) slow++;
+        position = (position + 1) % windowSize;
+
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && ((double) failures / recorded >= failureRateThreshold
+                    || (double) slow / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private boolean isStale(Permit permit) {
+        return permit.generation != generation;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        transition(State.CLOSED);
+        recorded = 0;
+        position = 0;
+        failures = 0;
+        slow = 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.otavio.aifoodapp.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.enums.ExportFormat;
+
+/**
+ * Writes export rows straight to the response as they are read, one NDJSON object or CSV line per row.
+ * Nothing is buffered beyond the writer's own buffer, so memory stays constant whatever the row count.
+ * List values become JSON arrays, or "|"-joined cells in CSV.
+ */
+public final class ExportWriter implements Closeable {
+
+    private static final String CSV_LIST_SEPARATOR = "|";
+
+    private final List<String> columns;
+    private final JsonGenerator json;
+    private final Writer csv;
+
+    public ExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper, List<String> columns) throws IOException {
+        this.columns = columns;
+        if (format == ExportFormat.NDJSON) {
+            this.json = objectMapper.getFactory().createGenerator(out);
+            // Lines are separated by hand, not by the generator's root separator
+            this.json.setRootValueSeparator(null);
+            this.csv = null;
+        } else {
+            this.json = null;
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeCsvLine(columns.toArray());
+        }
+    }
+
+    /**
+     * @param values one per column, in column order
+     */
+    public void writeRow(Object... values) throws IOException {
+        if (json != null) {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                json.writeFieldName(columns.get(i));
+                json.writeObject(values[i]);
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } else {
+            writeCsvLine(values);
+        }
+    }
+
+    private void writeCsvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            csv.write(csvCell(values[i]));
+        }
+        csv.write("\r\n");
+    }
+
+    private static String csvCell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof List<?> list
+                ? String.join(CSV_LIST_SEPARATOR, list.stream().map(String::valueOf).toList())
+                : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.close();
+        } else {
+            csv.close();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.otavio.aifoodapp.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonicaliza nomes de alimentos para uso como chave de cache
+ * ("  Feijão   Preto " e "feijao preto" resultam na mesma chave)
+ */
+public final class FoodNameNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private FoodNameNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses whitespace
+     */
+    public static String canonicalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    /**
+     * Groups quantities into power-of-two buckets (1, 2-3, 4-7, 8-15, ...)
+     */
+    public static int quantityBucket(Integer quantity) {
+        if (quantity == null || quantity <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(quantity);
+    }
+}
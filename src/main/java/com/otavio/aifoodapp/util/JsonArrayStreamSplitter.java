@@ -0,0 +1,75 @@
+package com.otavio.aifoodapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental tokenizer that splits a streamed JSON array into its top-level objects.
+ * Text is fed chunk by chunk as it arrives from the LLM; every object is returned as soon as
+ * its closing brace is seen. Anything before the opening bracket (e.g. a markdown fence) is ignored.
+ * Not thread-safe, use one instance per stream.
+ */
+public final class JsonArrayStreamSplitter {
+
+    private final StringBuilder current = new StringBuilder();
+    private boolean started;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    /**
+     * Feed the next chunk of text
+     * @return the objects completed by this chunk, possibly empty
+     */
+    public List<String> feed(CharSequence chunk) {
+        List<String> completed = null;
+
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+
+            if (depth == 0) {
+                if (!started) {
+                    // A bare object (no enclosing array) is accepted as a single element
+                    if (c == '[') {
+                        started = true;
+                    } else if (c == '{') {
+                        started = true;
+                        depth = 1;
+                        current.append(c);
+                    }
+                } else if (c == '{') {
+                    depth = 1;
+                    current.append(c);
+                }
+                // Separators, whitespace and the closing bracket between elements are skipped
+                continue;
+            }
+
+            current.append(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+                if (depth == 0) {
+                    if (completed == null) {
+                        completed = new ArrayList<>(1);
+                    }
+                    completed.add(current.toString());
+                    current.setLength(0);
+                }
+            }
+        }
+
+        return completed != null ? completed : List.of();
+    }
+}
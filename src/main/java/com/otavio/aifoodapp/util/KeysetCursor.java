@@ -0,0 +1,29 @@
+package com.otavio.aifoodapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort it was issued for and the (key, id) of the last row served.
+ * Encoded as URL-safe base64 so clients pass it back untouched.
+ */
+public record KeysetCursor(String sort, String direction, long id, String key) {
+
+    public String encode() {
+        // The key goes last since it may itself contain the separator
+        String raw = sort + '|' + direction + '|' + id + '|' + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token wasn't produced by encode()
+     */
+    public static KeysetCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new KeysetCursor(parts[0], parts[1], Long.parseLong(parts[2]), parts[3]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.otavio.aifoodapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.otavio.aifoodapp.model.FoodItem;
+
+/**
+ * Fingerprint of a user's pantry: SHA-256 over the sorted (canonical name, quantity, expiration bucket) entries.
+ * Two pantries with the same fingerprint get the same generated recipes.
+ */
+public final class PantryFingerprint {
+
+    private PantryFingerprint() {
+        // Utility class
+    }
+
+    public static String of(List<FoodItem> foodItems, LocalDate today) {
+        List<String> entries = foodItems.stream()
+                .map(item -> FoodNameNormalizer.canonicalize(item.getName())
+                        + '|' + (item.getQuantity() != null ? item.getQuantity() : 0)
+                        + '|' + expirationBucket(item.getExpiration(), today))
+                .sorted()
+                .toList();
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (String entry : entries) {
+            digest.update(entry.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Expiration only matters coarsely: expired, this week, this month, later or unknown
+     */
+    static String expirationBucket(LocalDate expiration, LocalDate today) {
+        if (expiration == null) {
+            return "none";
+        }
+        long days = ChronoUnit.DAYS.between(today, expiration);
+        if (days < 0) {
+            return "expired";
+        }
+        if (days <= 3) {
+            return "3d";
+        }
+        if (days <= 7) {
+            return "7d";
+        }
+        if (days <= 30) {
+            return "30d";
+        }
+        return "later";
+    }
+}
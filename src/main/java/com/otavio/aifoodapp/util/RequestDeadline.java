@@ -0,0 +1,57 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import reactor.util.context.Context;
+
+/**
+ * Time budget of the current request.
+ * Set per HTTP request by RequestDeadlineFilter (thread-bound) and carried into reactive pipelines
+ * through the Reactor context, since those may continue on other threads.
+ */
+public final class RequestDeadline {
+
+    public static final String CONTEXT_KEY = RequestDeadline.class.getName();
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public static Optional<RequestDeadline> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void set(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Capture the calling thread's deadline for use with contextWrite
+     */
+    public static Function<Context, Context> propagate() {
+        RequestDeadline deadline = CURRENT.get();
+        return context -> deadline == null ? context : context.put(CONTEXT_KEY, deadline);
+    }
+}
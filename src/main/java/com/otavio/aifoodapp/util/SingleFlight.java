@@ -0,0 +1,59 @@
+package com.otavio.aifoodapp.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent calls with the same key into a single upstream call.
+ * Callers arriving while a call is in flight subscribe to the same shared Mono.
+ * The share is reference counted: the upstream call is cancelled once every caller has cancelled,
+ * and the entry is released before the result is delivered, so later callers start a fresh call.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter issued;
+    private final Counter coalesced;
+
+    /**
+     * @param metricPrefix registers {prefix}.issued, {prefix}.coalesced and {prefix}.in-flight
+     */
+    public SingleFlight(MeterRegistry meterRegistry, String metricPrefix) {
+        this.issued = Counter.builder(metricPrefix + ".issued").register(meterRegistry);
+        this.coalesced = Counter.builder(metricPrefix + ".coalesced").register(meterRegistry);
+        Gauge.builder(metricPrefix + ".in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<V>> created = new AtomicReference<>();
+            Mono<V> shared = inFlight.computeIfAbsent(key, k -> {
+                AtomicReference<Mono<V>> self = new AtomicReference<>();
+                Mono<V> mono = call.get()
+                        .doOnEach(signal -> inFlight.remove(k, self.get()))
+                        .doFinally(signal -> inFlight.remove(k, self.get()))
+                        .flux()
+                        .publish()
+                        .refCount(1)
+                        .singleOrEmpty();
+                self.set(mono);
+                created.set(mono);
+                return mono;
+            });
+
+            if (created.get() != null) {
+                issued.increment();
+            } else {
+                coalesced.increment();
+            }
+            return shared;
+        });
+    }
+}
@@ -0,0 +1,16 @@
+CREATE TABLE tb_nutrition_cache (
+    cache_key VARCHAR(300) PRIMARY KEY,
+    canonical_name VARCHAR(250) NOT NULL,
+    quantity_bucket INTEGER NOT NULL,
+    source_quantity INTEGER NOT NULL,
+    calories DOUBLE PRECISION,
+    protein DOUBLE PRECISION,
+    fat DOUBLE PRECISION,
+    carbohydrates DOUBLE PRECISION,
+    fiber DOUBLE PRECISION,
+    sugar DOUBLE PRECISION,
+    sodium DOUBLE PRECISION,
+    food_group VARCHAR(50),
+    tags TEXT,
+    created_at TIMESTAMPTZ DEFAULT NOW()
+);
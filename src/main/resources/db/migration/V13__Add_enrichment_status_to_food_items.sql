@@ -0,0 +1,8 @@
+ALTER TABLE tb_food_item
+ADD COLUMN enrichment_status VARCHAR(20);
+
+ALTER TABLE tb_food_item
+ADD COLUMN enrichment_attempts INTEGER NOT NULL DEFAULT 0;
+
+-- Only partial items are scanned by the background completion job
+CREATE INDEX idx_food_item_enrichment_partial ON tb_food_item(id) WHERE enrichment_status = 'PARTIAL';
@@ -0,0 +1,11 @@
+CREATE TABLE tb_ai_response_store (
+    prompt_hash VARCHAR(64) PRIMARY KEY,
+    template_id VARCHAR(50) NOT NULL,
+    recipe_id BIGINT,
+    response TEXT NOT NULL,
+    refreshed_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    expires_at TIMESTAMPTZ NOT NULL
+);
+
+-- Used to drop the entries of a recipe when it is updated
+CREATE INDEX idx_ai_response_store_recipe_id ON tb_ai_response_store(recipe_id) WHERE recipe_id IS NOT NULL;
@@ -0,0 +1,18 @@
+CREATE TABLE tb_enrichment_job (
+    id BIGSERIAL PRIMARY KEY,
+    food_item_id BIGINT NOT NULL REFERENCES tb_food_item(id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    available_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMPTZ,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Workers claim by available_at, dead-lettered jobs are never scanned
+CREATE INDEX idx_enrichment_job_claimable ON tb_enrichment_job(available_at) WHERE status <> 'DEAD';
+CREATE INDEX idx_enrichment_job_food_item_id ON tb_enrichment_job(food_item_id);
+
+-- Items left PARTIAL by the scan-based completion are moved to the queue
+INSERT INTO tb_enrichment_job (food_item_id, attempts)
+SELECT id, enrichment_attempts FROM tb_food_item WHERE enrichment_status = 'PARTIAL';
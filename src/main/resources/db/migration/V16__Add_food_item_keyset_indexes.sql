@@ -0,0 +1,14 @@
+-- Keyset pagination of the pantry listing: one index per sort option, id breaks ties.
+-- Macro columns are nullable, unknown values sort as -1 so the cursor comparison never meets a NULL
+CREATE INDEX idx_food_item_user_expiration_id ON tb_food_item(user_id, expiration, id);
+CREATE INDEX idx_food_item_user_name_id ON tb_food_item(user_id, name, id);
+CREATE INDEX idx_food_item_user_calories_id ON tb_food_item(user_id, (COALESCE(calories, -1)), id);
+CREATE INDEX idx_food_item_user_protein_id ON tb_food_item(user_id, (COALESCE(protein, -1)), id);
+CREATE INDEX idx_food_item_user_id_id ON tb_food_item(user_id, id);
+
+-- Every composite index above starts with user_id
+DROP INDEX IF EXISTS idx_food_item_user_id;
+
+-- Name substring filter (ILIKE '%...%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_food_item_name_trgm ON tb_food_item USING gin (name gin_trgm_ops);
@@ -0,0 +1,10 @@
+-- Hibernate allocates ids in blocks of 50 from these sequences (pooled-lo: each nextval is the low end of a block),
+-- so inserts can be batched. Plain inserts through the column default still take one value each, no overlap.
+ALTER SEQUENCE tb_food_item_id_seq INCREMENT BY 50;
+SELECT setval('tb_food_item_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_food_item), false);
+
+ALTER SEQUENCE tb_recipes_id_seq INCREMENT BY 50;
+SELECT setval('tb_recipes_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_recipes), false);
+
+ALTER SEQUENCE tb_recipe_ingredients_id_seq INCREMENT BY 50;
+SELECT setval('tb_recipe_ingredients_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM tb_recipe_ingredients), false);
@@ -0,0 +1,2 @@
+-- The scan-based completion job it served was replaced by tb_enrichment_job (V15), nothing reads it anymore
+DROP INDEX IF EXISTS idx_food_item_enrichment_partial;
@@ -0,0 +1,106 @@
+package com.otavio.aifoodapp.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MaritacaHedgerTest {
+
+    private static MaritacaHedger hedger(long minDelayMs, int sampleSize, int minSamples) {
+        return new MaritacaHedger(new SimpleMeterRegistry(), true, 0.9, minDelayMs, 30, sampleSize, minSamples);
+    }
+
+    private static void recordMillis(MaritacaHedger hedger, long... latencies) {
+        for (long latency : latencies) {
+            hedger.record(Duration.ofMillis(latency).toNanos());
+        }
+    }
+
+    @Test
+    void noDelayUntilEnoughSamples() {
+        MaritacaHedger hedger = hedger(10, 10, 5);
+        recordMillis(hedger, 100, 200, 300, 400);
+        assertNull(hedger.hedgeDelay());
+
+        recordMillis(hedger, 500);
+        assertEquals(Duration.ofMillis(500), hedger.hedgeDelay());
+    }
+
+    @Test
+    void delayIsThePercentileOfRecentLatencies() {
+        MaritacaHedger hedger = hedger(10, 10, 5);
+        recordMillis(hedger, 1000, 900, 800, 700, 600, 500, 400, 300, 200, 100);
+        // ceil(0.9 * 10) = 9th smallest
+        assertEquals(Duration.ofMillis(900), hedger.hedgeDelay());
+    }
+
+    @Test
+    void delayIsNeverBelowTheMinimum() {
+        MaritacaHedger hedger = hedger(250, 10, 5);
+        recordMillis(hedger, 10, 20, 30, 40, 50);
+        assertEquals(Duration.ofMillis(250), hedger.hedgeDelay());
+    }
+
+    @Test
+    void onlyTheLatestSamplesCount() {
+        MaritacaHedger hedger = hedger(10, 5, 5);
+        recordMillis(hedger, 5000, 5000, 5000, 5000, 5000);
+        recordMillis(hedger, 100, 100, 100, 100, 100);
+        assertEquals(Duration.ofMillis(100), hedger.hedgeDelay());
+    }
+
+    @Test
+    void hedgeWinsWhenThePrimaryFailsWhileItRuns() {
+        MaritacaHedger hedger = hedger(20, 10, 5);
+        recordMillis(hedger, 1, 1, 1, 1, 1);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedger.hedge(() -> calls.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(60)).then(Mono.<String>error(new IllegalStateException("primary")))
+                        : Mono.delay(Duration.ofMillis(100)).thenReturn("hedge"))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("hedge", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void failsWithThePrimaryErrorWhenBothLegsFail() {
+        MaritacaHedger hedger = hedger(20, 10, 5);
+        recordMillis(hedger, 1, 1, 1, 1, 1);
+        AtomicInteger calls = new AtomicInteger();
+        IllegalStateException primaryError = new IllegalStateException("primary");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> hedger.hedge(() -> calls.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(60)).then(Mono.<String>error(primaryError))
+                        : Mono.delay(Duration.ofMillis(100)).then(Mono.<String>error(new IllegalStateException("hedge"))))
+                .block(Duration.ofSeconds(5)));
+
+        assertSame(primaryError, thrown);
+    }
+
+    @Test
+    void primaryFailingBeforeTheHedgeIsDueFailsAtOnce() {
+        MaritacaHedger hedger = hedger(1000, 10, 5);
+        recordMillis(hedger, 1, 1, 1, 1, 1);
+        AtomicInteger calls = new AtomicInteger();
+        IllegalStateException primaryError = new IllegalStateException("primary");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> hedger.hedge(() -> {
+                    calls.incrementAndGet();
+                    return Mono.<String>error(primaryError);
+                })
+                .block(Duration.ofMillis(500)));
+        assertSame(primaryError, thrown);
+        assertEquals(1, calls.get());
+    }
+}
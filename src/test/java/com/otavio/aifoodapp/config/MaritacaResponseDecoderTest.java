@@ -0,0 +1,91 @@
+package com.otavio.aifoodapp.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaritacaResponseDecoderTest {
+
+    private final MaritacaResponseDecoder decoder = new MaritacaResponseDecoder();
+
+    private MaritacaCompletion decode(String json) throws IOException {
+        return decoder.decode(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decodesTheFieldsInUse() throws IOException {
+        MaritacaCompletion completion = decode("""
+                {
+                  "id": "chatcmpl-1",
+                  "object": "chat.completion",
+                  "model": "sabia-3",
+                  "choices": [
+                    {"index": 0, "message": {"role": "assistant", "content": "Olá"}, "finish_reason": "stop"},
+                    {"index": 1, "message": {"role": "assistant", "content": "Oi", "refusal": null}, "finish_reason": "length"}
+                  ],
+                  "usage": {"prompt_tokens": 12, "completion_tokens": 3, "total_tokens": 15}
+                }
+                """);
+
+        assertEquals("chatcmpl-1", completion.id());
+        assertEquals("sabia-3", completion.model());
+        assertEquals(2, completion.choices().size());
+        assertEquals(new MaritacaCompletion.Choice(0, "assistant", "Olá", "stop"), completion.choices().get(0));
+        assertEquals("length", completion.choices().get(1).finishReason());
+        assertEquals(new MaritacaCompletion.Usage(12, 3, 15), completion.usage());
+    }
+
+    @Test
+    void skipsUnknownNestedFields() throws IOException {
+        MaritacaCompletion completion = decode("""
+                {
+                  "system_fingerprint": {"nested": [1, {"deep": true}]},
+                  "choices": [{"logprobs": {"content": [{"token": "x"}]}, "message": {"content": "ok", "tool_calls": []}}],
+                  "usage": {"prompt_tokens": 1, "completion_tokens": 1, "total_tokens": 2, "details": {"cached": 0}}
+                }
+                """);
+
+        assertEquals("ok", completion.choices().get(0).content());
+        assertEquals(0, completion.choices().get(0).index());
+        assertEquals(2, completion.usage().totalTokens());
+    }
+
+    @Test
+    void missingChoicesAndUsageDecodeAsEmpty() throws IOException {
+        MaritacaCompletion completion = decode("{\"id\": \"x\"}");
+        assertTrue(completion.choices().isEmpty());
+        assertNull(completion.usage());
+    }
+
+    @Test
+    void nullContentIsKeptAsNull() throws IOException {
+        MaritacaCompletion completion = decode("{\"choices\": [{\"message\": {\"role\": \"assistant\", \"content\": null}}]}");
+        assertNull(completion.choices().get(0).content());
+    }
+
+    @Test
+    void rejectsAnythingButAnObject() {
+        assertThrows(IOException.class, () -> decode("[]"));
+        assertThrows(IOException.class, () -> decode("{\"choices\": [{\"message\": "));
+    }
+
+    @Test
+    void decodesDeltaContent() throws IOException {
+        assertEquals("Olá", decoder.decodeDeltaContent(
+                "{\"id\":\"c\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"Olá\"},\"finish_reason\":null}]}"));
+    }
+
+    @Test
+    void deltaWithoutContentIsNull() throws IOException {
+        assertNull(decoder.decodeDeltaContent("{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}"));
+        assertNull(decoder.decodeDeltaContent("{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}"));
+        assertNull(decoder.decodeDeltaContent("{\"choices\":[]}"));
+        assertNull(decoder.decodeDeltaContent("\"not an object\""));
+    }
+}
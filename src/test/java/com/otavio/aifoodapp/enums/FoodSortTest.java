@@ -0,0 +1,50 @@
+package com.otavio.aifoodapp.enums;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.otavio.aifoodapp.dto.FoodItemSummary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FoodSortTest {
+
+    private static FoodItemSummary summary(Double calories, Double protein) {
+        return new FoodItemSummary(5L, "Iogurte", 2, LocalDate.of(2026, 10, 20), calories, protein,
+                null, null, null, null, null, FoodGroup.DAIRY, EnrichmentStatus.COMPLETE);
+    }
+
+    @Test
+    void keysParseBackToTheirBoundType() {
+        assertEquals(LocalDate.of(2026, 10, 20), FoodSort.EXPIRATION.parseKey("2026-10-20"));
+        assertEquals("Iogurte", FoodSort.NAME.parseKey("Iogurte"));
+        assertEquals(12.5, FoodSort.CALORIES.parseKey("12.5"));
+        assertEquals(-1.0, FoodSort.PROTEIN.parseKey("-1.0"));
+        assertEquals(5L, FoodSort.CREATED.parseKey("5"));
+    }
+
+    @Test
+    void keyOfRoundTripsThroughItsString() {
+        FoodItemSummary summary = summary(80.0, 4.2);
+        for (FoodSort sort : FoodSort.values()) {
+            Object key = sort.keyOf(summary);
+            assertEquals(key, sort.parseKey(String.valueOf(key)), sort.name());
+        }
+    }
+
+    @Test
+    void missingMacrosSortAsUnknown() {
+        FoodItemSummary summary = summary(null, null);
+        assertEquals(-1.0, FoodSort.CALORIES.keyOf(summary));
+        assertEquals(-1.0, FoodSort.PROTEIN.keyOf(summary));
+    }
+
+    @Test
+    void rejectsKeysOfTheWrongType() {
+        assertThrows(IllegalArgumentException.class, () -> FoodSort.CALORIES.parseKey("abc"));
+        assertThrows(IllegalArgumentException.class, () -> FoodSort.CREATED.parseKey("1.5"));
+        assertThrows(RuntimeException.class, () -> FoodSort.EXPIRATION.parseKey("20/10/2026"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.otavio.aifoodapp.enums.PromptTemplate;
+import com.otavio.aifoodapp.model.AiResponseEntry;
+import com.otavio.aifoodapp.repository.AiResponseRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AiResponseStoreTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(2);
+    private static final List<String> INPUTS = List.of("Arroz doce", "arroz, leite, açúcar");
+
+    private final AiResponseRepository repository = mock(AiResponseRepository.class);
+    private final AiResponseStore store = new AiResponseStore(repository, new SimpleMeterRegistry(), 60, 60, 1000);
+    private final String promptHash = AiResponseStore.promptHash(PromptTemplate.RECIPE_ANALYSIS, INPUTS);
+
+    private final AtomicInteger generated = new AtomicInteger();
+    private Sinks.One<String> answer = Sinks.one();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findById(promptHash)).thenReturn(Optional.empty());
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private Mono<String> generate() {
+        generated.incrementAndGet();
+        return answer.asMono();
+    }
+
+    private Mono<String> get() {
+        return store.getOrGenerate(PromptTemplate.RECIPE_ANALYSIS, 7L, INPUTS, this::generate);
+    }
+
+    private void stored(String response, OffsetDateTime expiresAt) {
+        AiResponseEntry entry = new AiResponseEntry(promptHash, PromptTemplate.RECIPE_ANALYSIS.getId(), 7L, response,
+                expiresAt.minusMinutes(60), expiresAt);
+        when(repository.findById(promptHash)).thenReturn(Optional.of(entry));
+    }
+
+    @Test
+    void freshEntryIsServedWithoutCallingTheModel() {
+        stored("análise guardada", OffsetDateTime.now().plusMinutes(5));
+
+        assertEquals("análise guardada", get().block(WAIT));
+        assertEquals(0, generated.get());
+    }
+
+    @Test
+    void missGeneratesAndStoresTheAnswer() {
+        answer.tryEmitValue("nova análise");
+
+        assertEquals("nova análise", get().block(WAIT));
+        verify(repository).save(argThat(entry -> entry.getPromptHash().equals(promptHash)
+                && entry.getRecipeId().equals(7L)
+                && entry.getResponse().equals("nova análise")
+                && entry.getExpiresAt().isAfter(OffsetDateTime.now().plusMinutes(59))));
+    }
+
+    @Test
+    void blankAnswersAreNotStored() {
+        answer.tryEmitValue(" ");
+
+        assertNull(get().block(WAIT));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void expiredEntryIsServedWhileOneRefreshRunsInTheBackground() {
+        stored("análise antiga", OffsetDateTime.now().minusMinutes(1));
+
+        // Both readers get the stale answer at once, the model is still working on the refresh
+        assertEquals("análise antiga", get().block(WAIT));
+        assertEquals("análise antiga", get().block(WAIT));
+        assertEquals(1, generated.get());
+        verify(repository, never()).save(any());
+
+        answer.tryEmitValue("análise nova");
+        verify(repository, timeout(WAIT.toMillis())).save(argThat(entry -> entry.getResponse().equals("análise nova")
+                && entry.getExpiresAt().isAfter(OffsetDateTime.now())));
+    }
+
+    @Test
+    void failedRefreshKeepsServingTheStaleEntry() {
+        stored("análise antiga", OffsetDateTime.now().minusMinutes(1));
+
+        assertEquals("análise antiga", get().block(WAIT));
+        answer.tryEmitError(new IllegalStateException("boom"));
+
+        // The failed refresh released its key, the next stale read starts another one
+        answer = Sinks.one();
+        assertEquals("análise antiga", get().block(WAIT));
+        assertEquals(2, generated.get());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void hashDependsOnTemplateAndInputs() {
+        assertEquals(promptHash, AiResponseStore.promptHash(PromptTemplate.RECIPE_ANALYSIS, List.copyOf(INPUTS)));
+        assertNotEquals(promptHash, AiResponseStore.promptHash(PromptTemplate.NUTRITION_FACTS, INPUTS));
+        assertNotEquals(promptHash, AiResponseStore.promptHash(PromptTemplate.RECIPE_ANALYSIS, List.of("Arroz doce")));
+        // Inputs are delimited, so moving text across the boundary changes the hash
+        assertNotEquals(AiResponseStore.promptHash(PromptTemplate.RECIPE_ANALYSIS, List.of("ab", "c")),
+                AiResponseStore.promptHash(PromptTemplate.RECIPE_ANALYSIS, List.of("a", "bc")));
+    }
+
+    @Test
+    void invalidatingARecipeDropsItsEntries() {
+        store.invalidateRecipe(7L);
+        verify(repository).deleteByRecipeId(7L);
+    }
+}
@@ -0,0 +1,44 @@
+package com.otavio.aifoodapp.service;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.repository.FoodItemRepository;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrichmentQueueTest {
+
+    private final FoodItemRepository foodItemRepository = mock(FoodItemRepository.class);
+    private final EnrichmentJobTransport transport = mock(EnrichmentJobTransport.class);
+    private final EnrichmentQueue enrichmentQueue = new EnrichmentQueue(foodItemRepository, transport);
+
+    private static FoodItem item(long id, EnrichmentStatus status) {
+        FoodItem item = new FoodItem();
+        item.setId(id);
+        item.setEnrichmentStatus(status);
+        return item;
+    }
+
+    @Test
+    void queuesTheItemsStillWaitingForEnrichmentAtOnce() {
+        List<FoodItem> items = List.of(
+                item(1, EnrichmentStatus.COMPLETE),
+                item(2, EnrichmentStatus.PENDING),
+                item(3, EnrichmentStatus.PARTIAL),
+                item(4, null));
+        when(foodItemRepository.saveAllAndFlush(items)).thenReturn(items);
+
+        enrichmentQueue.saveAndEnqueue(items);
+
+        verify(transport).enqueueAll(List.of(2L, 3L));
+        verify(transport, never()).enqueue(anyLong());
+    }
+}
@@ -0,0 +1,216 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.model.EnrichmentJob;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.repository.FoodItemRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EnrichmentWorkerTest {
+
+    private static final NutritionFacts FACTS = new NutritionFacts(130.0, 2.7, 0.3, 28.0, 0.4, 0.1, 1.0, null, List.of("cereal"));
+
+    private final EnrichmentJobTransport transport = mock(EnrichmentJobTransport.class);
+    private final FoodItemRepository foodItemRepository = mock(FoodItemRepository.class);
+    private final FoodAiService foodAiService = mock(FoodAiService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleTransactionStatus transactionStatus = new SimpleTransactionStatus();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(transport.stats()).thenReturn(new EnrichmentJobTransport.QueueStats(0, 0, Duration.ZERO));
+        when(transport.complete(any())).thenReturn(true);
+        when(transport.retry(any(), any(), anyString())).thenReturn(true);
+        when(transport.deadLetter(any(), anyString())).thenReturn(true);
+    }
+
+    private EnrichmentWorker worker(int batchSize, int concurrency, long itemBudgetMs, long leaseMs) {
+        return new EnrichmentWorker(transport, foodItemRepository, foodAiService, new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), batchSize, concurrency, 3, itemBudgetMs, 1000, 10000, leaseMs);
+    }
+
+    private EnrichmentWorker worker() {
+        return worker(20, 4, 30000, 180000);
+    }
+
+    private static FoodItem item(long id) {
+        FoodItem item = new FoodItem();
+        item.setId(id);
+        item.setName("Arroz " + id);
+        item.setQuantity(1);
+        item.setEnrichmentStatus(EnrichmentStatus.PENDING);
+        return item;
+    }
+
+    private static FoodItem copyOf(FoodItem item) {
+        FoodItem copy = item(item.getId());
+        copy.setName(item.getName());
+        copy.setQuantity(item.getQuantity());
+        return copy;
+    }
+
+    private static EnrichmentJob job(long id, FoodItem item, int attempts) {
+        EnrichmentJob job = EnrichmentJob.pending(item.getId());
+        job.setId(id);
+        job.setAttempts(attempts);
+        return job;
+    }
+
+    /**
+     * Claims the given jobs; the row read while settling is a fresh copy of each item
+     */
+    private void claim(List<EnrichmentJob> jobs, List<FoodItem> items, FoodItem... current) {
+        when(transport.claim(20)).thenReturn(jobs);
+        when(foodItemRepository.findAllById(any())).thenReturn(items);
+        for (FoodItem row : current) {
+            when(foodItemRepository.findByIdForUpdate(row.getId())).thenReturn(Optional.of(row));
+        }
+    }
+
+    @Test
+    void rejectsALeaseShorterThanABatch() {
+        // ceil(20 / 4) x 30 s = 150 s
+        assertThrows(IllegalStateException.class, () -> worker(20, 4, 30000, 150000));
+        assertDoesNotThrow(() -> worker(20, 4, 30000, 150001));
+        assertThrows(IllegalStateException.class, () -> worker(21, 4, 30000, 180000));
+    }
+
+    @Test
+    void completesTheJobAndFillsInTheCurrentRow() {
+        FoodItem claimed = item(1);
+        FoodItem current = copyOf(claimed);
+        EnrichmentJob job = job(10, claimed, 1);
+        claim(List.of(job), List.of(claimed), current);
+        when(foodAiService.resolveNutritionalFacts(claimed)).thenReturn(Mono.just(FACTS));
+
+        worker().drain();
+
+        verify(transport).complete(job);
+        assertEquals(130.0, current.getCalories());
+        assertEquals(EnrichmentStatus.COMPLETE, current.getEnrichmentStatus());
+        assertFalse(transactionStatus.isRollbackOnly());
+    }
+
+    @Test
+    void settlesEachJobAsSoonAsItsAttemptEnds() throws Exception {
+        FoodItem fast = item(1);
+        FoodItem slow = item(2);
+        EnrichmentJob fastJob = job(10, fast, 1);
+        EnrichmentJob slowJob = job(20, slow, 1);
+        claim(List.of(fastJob, slowJob), List.of(fast, slow), copyOf(fast), copyOf(slow));
+        Sinks.One<NutritionFacts> slowAnswer = Sinks.one();
+        when(foodAiService.resolveNutritionalFacts(fast)).thenReturn(Mono.just(FACTS));
+        when(foodAiService.resolveNutritionalFacts(slow)).thenReturn(slowAnswer.asMono());
+
+        CompletableFuture<Void> drained = CompletableFuture.runAsync(worker()::drain);
+
+        verify(transport, timeout(2000)).complete(fastJob);
+        verify(transport, never()).complete(slowJob);
+        assertFalse(drained.isDone());
+
+        slowAnswer.tryEmitValue(FACTS);
+        drained.get(2, TimeUnit.SECONDS);
+        verify(transport).complete(slowJob);
+    }
+
+    @Test
+    void attemptsAreCutAtTheItemBudget() throws Exception {
+        FoodItem claimed = item(1);
+        FoodItem current = copyOf(claimed);
+        EnrichmentJob job = job(10, claimed, 1);
+        claim(List.of(job), List.of(claimed), current);
+        when(foodAiService.resolveNutritionalFacts(claimed)).thenReturn(Mono.never());
+
+        CompletableFuture.runAsync(worker(20, 4, 100, 180000)::drain).get(2, TimeUnit.SECONDS);
+
+        verify(transport).retry(eq(job), any(), anyString());
+        assertEquals(1, current.getEnrichmentAttempts());
+        assertNull(current.getCalories());
+    }
+
+    @Test
+    void failedAttemptIsRetriedThenDeadLettered() {
+        FoodItem claimed = item(1);
+        FoodItem current = copyOf(claimed);
+        EnrichmentJob job = job(10, claimed, 2);
+        claim(List.of(job), List.of(claimed), current);
+        when(foodAiService.resolveNutritionalFacts(claimed)).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        worker().drain();
+        verify(transport).retry(eq(job), any(), eq("boom"));
+        assertEquals(2, current.getEnrichmentAttempts());
+        assertEquals(EnrichmentStatus.PENDING, current.getEnrichmentStatus());
+
+        job.setAttempts(3);
+        worker().drain();
+        verify(transport).deadLetter(job, "boom");
+        assertEquals(3, current.getEnrichmentAttempts());
+        assertEquals(EnrichmentStatus.FAILED, current.getEnrichmentStatus());
+    }
+
+    @Test
+    void resultIsDroppedWhenTheItemChangedMeanwhile() {
+        FoodItem claimed = item(1);
+        FoodItem current = copyOf(claimed);
+        current.setQuantity(5);
+        EnrichmentJob job = job(10, claimed, 1);
+        claim(List.of(job), List.of(claimed), current);
+        when(foodAiService.resolveNutritionalFacts(claimed)).thenReturn(Mono.just(FACTS));
+
+        worker().drain();
+
+        verify(transport).complete(job);
+        assertNull(current.getCalories());
+        assertEquals(EnrichmentStatus.PENDING, current.getEnrichmentStatus());
+    }
+
+    @Test
+    void staleClaimWritesNothing() {
+        FoodItem claimed = item(1);
+        FoodItem current = copyOf(claimed);
+        EnrichmentJob job = job(10, claimed, 1);
+        claim(List.of(job), List.of(claimed), current);
+        when(foodAiService.resolveNutritionalFacts(claimed)).thenReturn(Mono.just(FACTS));
+        // Another worker claimed the job after this one's lease ran out
+        when(transport.complete(job)).thenReturn(false);
+
+        worker().drain();
+
+        assertNull(current.getCalories());
+        assertEquals(EnrichmentStatus.PENDING, current.getEnrichmentStatus());
+        assertTrue(transactionStatus.isRollbackOnly());
+    }
+}
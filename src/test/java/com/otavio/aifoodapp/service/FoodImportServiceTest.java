@@ -0,0 +1,98 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.otavio.aifoodapp.enums.EnrichmentStatus;
+import com.otavio.aifoodapp.enums.FoodGroup;
+import com.otavio.aifoodapp.model.FoodItem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FoodImportServiceTest {
+
+    private static Map<String, String> row(String... keyValues) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("name", "Arroz");
+        fields.put("quantity", "2");
+        fields.put("expiration", "2026-12-01");
+        for (int i = 0; i < keyValues.length; i += 2) {
+            fields.put(keyValues[i], keyValues[i + 1]);
+        }
+        return fields;
+    }
+
+    private static void assertRejected(Map<String, String> fields) {
+        assertThrows(IllegalArgumentException.class, () -> FoodImportService.toFoodItem(fields, true));
+    }
+
+    @Test
+    void mapsAllColumns() {
+        FoodItem item = FoodImportService.toFoodItem(row(
+                "name", "  Arroz integral ", "calories", "111", "protein", "2.6", "fat", "0.9",
+                "carbohydrates", "23", "fiber", "1.8", "sugar", "0.4", "sodium", "5",
+                "foodgroup", "grains", "tags", "cereal"), true);
+
+        assertEquals("Arroz integral", item.getName());
+        assertEquals(2, item.getQuantity());
+        assertEquals(LocalDate.of(2026, 12, 1), item.getExpiration());
+        assertEquals(111.0, item.getCalories());
+        assertEquals(2.6, item.getProtein());
+        assertEquals(0.9, item.getFat());
+        assertEquals(23.0, item.getCarbohydrates());
+        assertEquals(1.8, item.getFiber());
+        assertEquals(0.4, item.getSugar());
+        assertEquals(5.0, item.getSodium());
+        assertEquals(FoodGroup.GRAINS, item.getFoodGroup());
+        assertEquals(List.of("cereal"), item.getTags());
+        assertEquals(EnrichmentStatus.COMPLETE, item.getEnrichmentStatus());
+    }
+
+    @Test
+    void rowsWithoutCaloriesArePendingOnlyWhenEnriching() {
+        assertEquals(EnrichmentStatus.PENDING, FoodImportService.toFoodItem(row("calories", " "), true).getEnrichmentStatus());
+        assertNull(FoodImportService.toFoodItem(row(), false).getEnrichmentStatus());
+        assertEquals(EnrichmentStatus.COMPLETE, FoodImportService.toFoodItem(row("calories", "0"), false).getEnrichmentStatus());
+    }
+
+    @Test
+    void splitsAndTrimsTags() {
+        FoodItem item = FoodImportService.toFoodItem(row("tags", " vegano | | sem glúten|"), false);
+        assertEquals(List.of("vegano", "sem glúten"), item.getTags());
+        assertEquals(List.of(), FoodImportService.toFoodItem(row(), false).getTags());
+    }
+
+    @Test
+    void rejectsInvalidRequiredFields() {
+        assertRejected(row("name", " "));
+        assertRejected(row("name", "x".repeat(251)));
+        assertRejected(row("quantity", ""));
+        assertRejected(row("quantity", "1.5"));
+        assertRejected(row("quantity", "-1"));
+        assertRejected(row("expiration", ""));
+        assertRejected(row("expiration", "01/12/2026"));
+    }
+
+    @Test
+    void rejectsInvalidOptionalFields() {
+        assertRejected(row("foodgroup", "candy"));
+        assertRejected(row("calories", "abc"));
+        assertRejected(row("protein", "-0.5"));
+        assertRejected(row("fat", "NaN"));
+        assertRejected(row("sodium", "Infinity"));
+        assertRejected(row("tags", "ok|" + "t".repeat(51)));
+    }
+
+    @Test
+    void acceptsTheLongestAllowedValues() {
+        FoodItem item = FoodImportService.toFoodItem(row("name", "x".repeat(250), "tags", "t".repeat(50)), false);
+        assertEquals(250, item.getName().length());
+        assertEquals(List.of("t".repeat(50)), item.getTags());
+    }
+}
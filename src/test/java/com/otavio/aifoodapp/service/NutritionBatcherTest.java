@@ -0,0 +1,158 @@
+package com.otavio.aifoodapp.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.otavio.aifoodapp.config.MaritacaChatClient;
+import com.otavio.aifoodapp.dto.NutritionFacts;
+import com.otavio.aifoodapp.mapper.NutritionMapper;
+import com.otavio.aifoodapp.model.FoodItem;
+import com.otavio.aifoodapp.util.Bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NutritionBatcherTest {
+
+    private static final NutritionFacts FALLBACK = new NutritionFacts(-1.0, null, null, null, null, null, null, null, List.of());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MaritacaChatClient chatClient = mock(MaritacaChatClient.class);
+    private final List<Sinks.One<ChatResponse>> calls = new CopyOnWriteArrayList<>();
+    private NutritionBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        when(chatClient.call(any())).thenAnswer(invocation -> {
+            Sinks.One<ChatResponse> call = Sinks.one();
+            calls.add(call);
+            return call.asMono();
+        });
+        Bulkhead aiBulkhead = new Bulkhead("ai", 8, 8, Duration.ofSeconds(1), IllegalStateException::new, meterRegistry);
+
+        // Two items per batch, a single batch in flight
+        batcher = new NutritionBatcher(chatClient, new NutritionMapper(new ObjectMapper()), aiBulkhead, meterRegistry,
+                true, 2, 20, 1);
+        ReflectionTestUtils.setField(batcher, "systemPrompt", "system");
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    private CompletableFuture<NutritionFacts> submit(String name) {
+        FoodItem item = new FoodItem();
+        item.setName(name);
+        item.setQuantity(1);
+        return batcher.submit(item, () -> Mono.just(FALLBACK)).toFuture();
+    }
+
+    private static ChatResponse answer(String json) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(json))));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    private static double calories(CompletableFuture<NutritionFacts> lookup) throws Exception {
+        return lookup.get(2, TimeUnit.SECONDS).calories();
+    }
+
+    @Test
+    void answersEachItemFromOneBatchCall() throws Exception {
+        CompletableFuture<NutritionFacts> rice = submit("Arroz");
+        CompletableFuture<NutritionFacts> beans = submit("Feijão");
+
+        await(() -> calls.size() == 1);
+        calls.get(0).tryEmitValue(answer("[{\"index\": 0, \"calories\": 130}, {\"index\": 1, \"calories\": 77}]"));
+
+        assertEquals(130.0, calories(rice));
+        assertEquals(77.0, calories(beans));
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void itemsTheAnswerMissesFallBack() throws Exception {
+        CompletableFuture<NutritionFacts> rice = submit("Arroz");
+        CompletableFuture<NutritionFacts> beans = submit("Feijão");
+
+        await(() -> calls.size() == 1);
+        calls.get(0).tryEmitValue(answer("[{\"index\": 1, \"calories\": 77}]"));
+
+        assertEquals(-1.0, calories(rice));
+        assertEquals(77.0, calories(beans));
+    }
+
+    @Test
+    void failedBatchCallFallsBack() throws Exception {
+        CompletableFuture<NutritionFacts> rice = submit("Arroz");
+        CompletableFuture<NutritionFacts> beans = submit("Feijão");
+
+        await(() -> calls.size() == 1);
+        calls.get(0).tryEmitError(new IllegalStateException("boom"));
+
+        assertEquals(-1.0, calories(rice));
+        assertEquals(-1.0, calories(beans));
+    }
+
+    @Test
+    void lookupsStillCompleteAfterEveryBatchSlotWasBusy() throws Exception {
+        CompletableFuture<NutritionFacts> rice = submit("Arroz");
+        CompletableFuture<NutritionFacts> beans = submit("Feijão");
+        await(() -> calls.size() == 1);
+
+        // The only batch slot is taken: the next buffer fills up and several windows expire without demand
+        CompletableFuture<NutritionFacts> milk = submit("Leite");
+        CompletableFuture<NutritionFacts> eggs = submit("Ovos");
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(150));
+        CompletableFuture<NutritionFacts> bread = submit("Pão");
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(150));
+
+        calls.get(0).tryEmitValue(answer("[{\"index\": 0, \"calories\": 130}, {\"index\": 1, \"calories\": 77}]"));
+        assertEquals(130.0, calories(rice));
+        assertEquals(77.0, calories(beans));
+
+        await(() -> calls.size() == 2);
+        calls.get(1).tryEmitValue(answer("[{\"index\": 0, \"calories\": 42}, {\"index\": 1, \"calories\": 155}]"));
+        assertEquals(42.0, calories(milk));
+        assertEquals(155.0, calories(eggs));
+
+        // Alone in its batch, so looked up individually
+        assertEquals(-1.0, calories(bread));
+
+        CompletableFuture<NutritionFacts> butter = submit("Manteiga");
+        CompletableFuture<NutritionFacts> cheese = submit("Queijo");
+        await(() -> calls.size() == 3);
+        calls.get(2).tryEmitValue(answer("[{\"index\": 0, \"calories\": 717}, {\"index\": 1, \"calories\": 402}]"));
+        assertEquals(717.0, calories(butter));
+        assertEquals(402.0, calories(cheese));
+    }
+}
@@ -0,0 +1,67 @@
+package com.otavio.aifoodapp.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.otavio.aifoodapp.dto.RecipeDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipeCacheTest {
+
+    private static final List<RecipeDto> RECIPES = List.of(
+            new RecipeDto(null, "Arroz doce", "Sobremesa", List.of(), List.of("Cozinhe o arroz"), Set.of()));
+
+    private final RecipeCache recipeCache = new RecipeCache(new SimpleMeterRegistry(), 100, 60);
+
+    @Test
+    void hitsOnlyForThePantryItWasGeneratedFor() {
+        recipeCache.put(1L, "pantry-a", RECIPES);
+
+        assertEquals(Optional.of(RECIPES), recipeCache.get(1L, "pantry-a"));
+        assertTrue(recipeCache.get(1L, "pantry-b").isEmpty());
+        assertTrue(recipeCache.get(2L, "pantry-a").isEmpty());
+    }
+
+    @Test
+    void invalidateDropsOnlyThatUsersEntry() {
+        recipeCache.put(1L, "pantry-a", RECIPES);
+        recipeCache.put(2L, "pantry-a", RECIPES);
+
+        recipeCache.invalidate(1L);
+
+        assertTrue(recipeCache.get(1L, "pantry-a").isEmpty());
+        assertTrue(recipeCache.getStale(1L).isEmpty());
+        assertEquals(Optional.of(RECIPES), recipeCache.get(2L, "pantry-a"));
+    }
+
+    @Test
+    void invalidatingWithoutAUserIsANoOp() {
+        recipeCache.put(1L, "pantry-a", RECIPES);
+        recipeCache.invalidate(null);
+        assertEquals(Optional.of(RECIPES), recipeCache.get(1L, "pantry-a"));
+    }
+
+    @Test
+    void staleAnswerIgnoresTheFingerprint() {
+        recipeCache.put(1L, "pantry-a", RECIPES);
+        assertEquals(Optional.of(RECIPES), recipeCache.getStale(1L));
+        assertTrue(recipeCache.getStale(2L).isEmpty());
+    }
+
+    @Test
+    void emptyAnswersAreNotCached() {
+        recipeCache.put(1L, "pantry-a", RECIPES);
+        recipeCache.put(1L, "pantry-b", List.of());
+
+        // The previous set is kept, still only for its own pantry
+        assertTrue(recipeCache.get(1L, "pantry-b").isEmpty());
+        assertEquals(Optional.of(RECIPES), recipeCache.get(1L, "pantry-a"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private static AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, THRESHOLD_NANOS, 0.5,
+                new SimpleMeterRegistry(), "test.limiter");
+    }
+
+    @Test
+    void rejectsBeyondTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.onIgnore();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void initialLimitIsClampedToBounds() {
+        assertEquals(10.0, limiter(50, 1, 10).getLimit());
+        assertEquals(2.0, limiter(0, 2, 10).getLimit());
+    }
+
+    @Test
+    void slowCallCutsTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 3, 10);
+        limiter.tryAcquire();
+        limiter.onSuccess(THRESHOLD_NANOS + 1);
+        assertEquals(4.0, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.onSuccess(THRESHOLD_NANOS + 1);
+        assertEquals(3.0, limiter.getLimit());
+    }
+
+    @Test
+    void droppedCallCutsTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 10);
+        limiter.tryAcquire();
+        limiter.onDropped();
+        assertEquals(4.0, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void ignoredCallLeavesTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(8, 1, 10);
+        limiter.tryAcquire();
+        limiter.onIgnore();
+        assertEquals(8.0, limiter.getLimit());
+    }
+
+    @Test
+    void fastCallsGrowTheLimitOnlyWhileItIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 1, 10);
+
+        // One call at a time uses a quarter of the limit: no growth
+        limiter.tryAcquire();
+        limiter.onSuccess(0);
+        assertEquals(4.0, limiter.getLimit());
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.onSuccess(0);
+        assertEquals(4.25, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void limitNeverGrowsPastTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 2);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.onSuccess(0);
+            limiter.onSuccess(0);
+        }
+        assertEquals(2.0, limiter.getLimit());
+    }
+}
@@ -0,0 +1,142 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    private static Bulkhead bulkhead(int maxConcurrent, int maxQueued, Duration maxWait) {
+        return new Bulkhead("test", maxConcurrent, maxQueued, maxWait, IllegalStateException::new, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() {
+        Bulkhead bulkhead = bulkhead(1, 0, Duration.ofSeconds(1));
+        Sinks.Empty<Void> holder = Sinks.empty();
+        bulkhead.run(holder::asMono).subscribe();
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.call(() -> "never runs"));
+
+        holder.tryEmitEmpty();
+        assertEquals("runs", bulkhead.call(() -> "runs"));
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void releaseHandsTheSlotToTheNextWaiter() {
+        Bulkhead bulkhead = bulkhead(1, 1, Duration.ofSeconds(5));
+        Sinks.Empty<Void> holder = Sinks.empty();
+        bulkhead.run(holder::asMono).subscribe();
+
+        AtomicBoolean ran = new AtomicBoolean();
+        bulkhead.run(() -> Mono.fromRunnable(() -> ran.set(true))).subscribe();
+        assertEquals(1, bulkhead.getQueued());
+        assertFalse(ran.get());
+
+        holder.tryEmitEmpty();
+        assertTrue(ran.get());
+        assertEquals(0, bulkhead.getQueued());
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void cancelledWaiterLeavesTheQueue() {
+        Bulkhead bulkhead = bulkhead(1, 1, Duration.ofSeconds(5));
+        Sinks.Empty<Void> holder = Sinks.empty();
+        bulkhead.run(holder::asMono).subscribe();
+
+        Disposable waiter = bulkhead.run(() -> Mono.just("late")).subscribe();
+        waiter.dispose();
+        assertEquals(0, bulkhead.getQueued());
+
+        holder.tryEmitEmpty();
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    @Test
+    void waitTimeoutIsRejectedAndFreesTheQueue() {
+        Bulkhead bulkhead = bulkhead(1, 1, Duration.ofMillis(50));
+        Sinks.Empty<Void> holder = Sinks.empty();
+        bulkhead.run(holder::asMono).subscribe();
+
+        assertThrows(IllegalStateException.class, () -> bulkhead.call(() -> "blocking waiter"));
+        assertEquals(0, bulkhead.getQueued());
+        assertThrows(IllegalStateException.class, () -> bulkhead.run(() -> Mono.just("reactive waiter")).block());
+        assertEquals(0, bulkhead.getQueued());
+        holder.tryEmitEmpty();
+        assertEquals(0, bulkhead.getActive());
+    }
+
+    /**
+     * Waiters giving up at the same moment the slot is handed to them must pass it on, not leak it
+     */
+    @Test
+    void abandonRacingHandOffNeverLeaksSlots() throws Exception {
+        Bulkhead bulkhead = bulkhead(2, 50, Duration.ofMillis(2));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int worker = 0; worker < 8; worker++) {
+                boolean reactive = worker % 2 == 0;
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 300; i++) {
+                        long workMicros = ThreadLocalRandom.current().nextLong(0, 3000);
+                        try {
+                            if (reactive) {
+                                bulkhead.run(() -> Mono.delay(Duration.ofNanos(workMicros * 1000)))
+                                        .timeout(Duration.ofNanos(ThreadLocalRandom.current().nextLong(500, 3000) * 1000))
+                                        .block();
+                            } else {
+                                bulkhead.call(() -> {
+                                    LockSupport.parkNanos(workMicros * 1000);
+                                    return null;
+                                });
+                            }
+                        } catch (RuntimeException rejectedOrTimedOut) {
+                            // Expected under contention
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // In-flight releases of timed-out reactive calls finish asynchronously
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (bulkhead.getActive() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, bulkhead.getActive());
+        assertEquals(0, bulkhead.getQueued());
+        assertEquals("free", bulkhead.call(() -> "free"));
+    }
+}
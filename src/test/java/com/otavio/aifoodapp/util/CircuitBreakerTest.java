@@ -0,0 +1,142 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long SLOW_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private static CircuitBreaker breaker(Duration openDuration, int halfOpenCalls) {
+        return new CircuitBreaker(4, 4, 0.5, 0.5, SLOW_NANOS, openDuration, halfOpenCalls,
+                new SimpleMeterRegistry(), "test.breaker");
+    }
+
+    private static void fail(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onError(breaker.tryAcquire());
+        }
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+        fail(breaker, 3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensWhenFailureRateCrossesThreshold() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+        breaker.onSuccess(breaker.tryAcquire(), 0);
+        breaker.onSuccess(breaker.tryAcquire(), 0);
+        fail(breaker, 2);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+        assertTrue(breaker.remainingOpenTime().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void opensWhenSlowCallRateCrossesThreshold() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+        breaker.onSuccess(breaker.tryAcquire(), 0);
+        breaker.onSuccess(breaker.tryAcquire(), 0);
+        breaker.onSuccess(breaker.tryAcquire(), SLOW_NANOS + 1);
+        breaker.onSuccess(breaker.tryAcquire(), SLOW_NANOS + 1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void ignoredCallsAreNotRecorded() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1), 1);
+        for (int i = 0; i < 10; i++) {
+            breaker.onIgnore(breaker.tryAcquire());
+        }
+        fail(breaker, 3);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void closesAfterSuccessfulProbes() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 2);
+        fail(breaker, 4);
+
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertTrue(first.isProbe());
+        assertNull(breaker.tryAcquire(), "only halfOpenCalls probes are let through");
+
+        breaker.onSuccess(first, 0);
+        breaker.onSuccess(second, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(200), 1);
+        fail(breaker, 4);
+
+        CircuitBreaker.Permit probe = awaitProbe(breaker);
+        breaker.onError(probe);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void staleClosedOutcomesAreIgnoredWhileHalfOpen() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 1);
+        CircuitBreaker.Permit admittedWhileClosed = breaker.tryAcquire();
+        assertFalse(admittedWhileClosed.isProbe());
+        fail(breaker, 4);
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertTrue(probe.isProbe());
+
+        // Must neither free the probe slot nor re-open the breaker
+        breaker.onIgnore(admittedWhileClosed);
+        assertNull(breaker.tryAcquire());
+        breaker.onError(admittedWhileClosed);
+        assertNull(breaker.tryAcquire());
+
+        breaker.onSuccess(probe, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void staleProbeOutcomesAreIgnoredAfterClosing() {
+        CircuitBreaker breaker = breaker(Duration.ZERO, 1);
+        fail(breaker, 4);
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        breaker.onSuccess(probe, 0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // A second outcome for the same probe must not re-open the closed breaker
+        breaker.onError(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static CircuitBreaker.Permit awaitProbe(CircuitBreaker breaker) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            CircuitBreaker.Permit permit = breaker.tryAcquire();
+            if (permit != null) {
+                return permit;
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("breaker never let a probe through");
+    }
+}
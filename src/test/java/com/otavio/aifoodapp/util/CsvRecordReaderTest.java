@@ -0,0 +1,76 @@
+package com.otavio.aifoodapp.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRecordReaderTest {
+
+    private static CsvRecordReader reader(String input) {
+        return new CsvRecordReader(new StringReader(input));
+    }
+
+    @Test
+    void readsRecordsUntilTheEnd() throws IOException {
+        CsvRecordReader reader = reader("name,quantity\nArroz,2\nFeijão,1");
+        assertEquals(List.of("name", "quantity"), reader.readRecord());
+        assertEquals(List.of("Arroz", "2"), reader.readRecord());
+        assertEquals(List.of("Feijão", "1"), reader.readRecord());
+        assertNull(reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void acceptsCrlfAndLoneCr() throws IOException {
+        CsvRecordReader reader = reader("a,b\r\nc,d\re,f\r\n");
+        assertEquals(List.of("a", "b"), reader.readRecord());
+        assertEquals(List.of("c", "d"), reader.readRecord());
+        assertEquals(List.of("e", "f"), reader.readRecord());
+        assertNull(reader.readRecord());
+        assertEquals(4, reader.getLine());
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        CsvRecordReader reader = reader(",x,\n\n");
+        assertEquals(List.of("", "x", ""), reader.readRecord());
+        assertEquals(List.of(""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void unquotesFieldsAndEscapedQuotes() throws IOException {
+        CsvRecordReader reader = reader("\"Leite, integral\",\"diz \"\"oi\"\"\",\"\"\n");
+        assertEquals(List.of("Leite, integral", "diz \"oi\"", ""), reader.readRecord());
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() throws IOException {
+        CsvRecordReader reader = reader("a,\"linha 1\nlinha 2\"\r\nb,c\n");
+        assertEquals(1, reader.getLine());
+        assertEquals(List.of("a", "linha 1\nlinha 2"), reader.readRecord());
+        assertEquals(3, reader.getLine());
+        assertEquals(List.of("b", "c"), reader.readRecord());
+        assertEquals(4, reader.getLine());
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of("5\" pizza", "1"), reader("5\" pizza,1").readRecord());
+    }
+
+    @Test
+    void unterminatedQuoteFails() throws IOException {
+        CsvRecordReader reader = reader("ok,1\n\"aberto,2\nmais\n");
+        assertEquals(List.of("ok", "1"), reader.readRecord());
+        IOException e = assertThrows(IOException.class, reader::readRecord);
+        assertTrue(e.getMessage().startsWith("Unterminated quoted field at line "), e.getMessage());
+    }
+}
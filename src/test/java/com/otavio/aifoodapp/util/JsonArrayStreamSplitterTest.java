@@ -0,0 +1,66 @@
+package com.otavio.aifoodapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonArrayStreamSplitterTest {
+
+    private static List<String> feedAll(JsonArrayStreamSplitter splitter, String... chunks) {
+        List<String> objects = new ArrayList<>();
+        for (String chunk : chunks) {
+            objects.addAll(splitter.feed(chunk));
+        }
+        return objects;
+    }
+
+    @Test
+    void splitsTopLevelObjects() {
+        List<String> objects = feedAll(new JsonArrayStreamSplitter(), "[{\"a\":1}, {\"b\":2}]");
+        assertEquals(List.of("{\"a\":1}", "{\"b\":2}"), objects);
+    }
+
+    @Test
+    void emitsEachObjectAsSoonAsItCloses() {
+        JsonArrayStreamSplitter splitter = new JsonArrayStreamSplitter();
+        assertTrue(splitter.feed("[{\"name\":\"Bo").isEmpty());
+        assertEquals(List.of("{\"name\":\"Bolo\"}"), splitter.feed("lo\"},{\"na"));
+        assertEquals(List.of("{\"name\":\"Pão\"}"), splitter.feed("me\":\"Pão\"}]"));
+    }
+
+    @Test
+    void keepsNestedObjectsAndArraysInTheirParent() {
+        List<String> objects = feedAll(new JsonArrayStreamSplitter(),
+                "[{\"ingredients\":[{\"n\":\"ovo\"},{\"n\":\"leite\"}],\"info\":{\"kcal\":100}}]");
+        assertEquals(List.of("{\"ingredients\":[{\"n\":\"ovo\"},{\"n\":\"leite\"}],\"info\":{\"kcal\":100}}"), objects);
+    }
+
+    @Test
+    void ignoresBracesAndQuotesInsideStrings() {
+        String object = "{\"text\":\"a } b { c ] \\\" still text\",\"x\":1}";
+        List<String> objects = feedAll(new JsonArrayStreamSplitter(), "[", object.substring(0, 12), object.substring(12), "]");
+        assertEquals(List.of(object), objects);
+    }
+
+    @Test
+    void escapedBackslashEndsTheEscape() {
+        String object = "{\"path\":\"C:\\\\\",\"next\":2}";
+        assertEquals(List.of(object), feedAll(new JsonArrayStreamSplitter(), "[" + object + "]"));
+    }
+
+    @Test
+    void skipsTextBeforeTheArray() {
+        List<String> objects = feedAll(new JsonArrayStreamSplitter(), "```json\n", "[\n  {\"a\":1}\n]\n```");
+        assertEquals(List.of("{\"a\":1}"), objects);
+    }
+
+    @Test
+    void acceptsABareObject() {
+        List<String> objects = feedAll(new JsonArrayStreamSplitter(), "Aqui está: {\"a\":", "1}");
+        assertEquals(List.of("{\"a\":1}"), objects);
+    }
+}
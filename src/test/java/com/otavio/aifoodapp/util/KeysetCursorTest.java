@@ -0,0 +1,41 @@
+package com.otavio.aifoodapp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughTheToken() {
+        KeysetCursor cursor = new KeysetCursor("EXPIRATION", "ASC", 42L, "2026-10-17");
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void keyMayContainTheSeparator() {
+        KeysetCursor cursor = new KeysetCursor("NAME", "DESC", 7L, "Arroz | Feijão|");
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new KeysetCursor("NAME", "ASC", 1L, "???>>>~~~").encode();
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String missingParts = Base64.getUrlEncoder().encodeToString("nope".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("NAME|ASC|x|k".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(missingParts));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(badId));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not base64!"));
+    }
+}
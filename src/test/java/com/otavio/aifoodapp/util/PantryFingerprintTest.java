@@ -0,0 +1,54 @@
+package com.otavio.aifoodapp.util;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.otavio.aifoodapp.model.FoodItem;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PantryFingerprintTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+
+    private static FoodItem item(String name, Integer quantity, LocalDate expiration) {
+        FoodItem item = new FoodItem();
+        item.setName(name);
+        item.setQuantity(quantity);
+        item.setExpiration(expiration);
+        return item;
+    }
+
+    @Test
+    void ignoresOrderAndNameSpelling() {
+        List<FoodItem> pantry = List.of(item("Feijão Preto", 2, TODAY.plusDays(60)), item("Arroz", 1, null));
+        List<FoodItem> same = List.of(item("arroz", 1, null), item("  feijao   preto ", 2, TODAY.plusDays(90)));
+
+        assertEquals(PantryFingerprint.of(pantry, TODAY), PantryFingerprint.of(same, TODAY));
+    }
+
+    @Test
+    void changesWhenThePantryChanges() {
+        List<FoodItem> pantry = List.of(item("Arroz", 1, TODAY.plusDays(60)));
+        String fingerprint = PantryFingerprint.of(pantry, TODAY);
+
+        assertNotEquals(fingerprint, PantryFingerprint.of(List.of(item("Arroz", 2, TODAY.plusDays(60))), TODAY));
+        assertNotEquals(fingerprint, PantryFingerprint.of(List.of(item("Arroz", 1, TODAY.plusDays(5))), TODAY));
+        assertNotEquals(fingerprint, PantryFingerprint.of(List.of(), TODAY));
+        assertNotEquals(fingerprint, PantryFingerprint.of(List.of(item("Arroz", 1, TODAY.plusDays(60)),
+                item("Leite", 1, TODAY.plusDays(60))), TODAY));
+    }
+
+    @Test
+    void bucketsExpirationCoarsely() {
+        assertEquals("none", PantryFingerprint.expirationBucket(null, TODAY));
+        assertEquals("expired", PantryFingerprint.expirationBucket(TODAY.minusDays(1), TODAY));
+        assertEquals("3d", PantryFingerprint.expirationBucket(TODAY, TODAY));
+        assertEquals("7d", PantryFingerprint.expirationBucket(TODAY.plusDays(7), TODAY));
+        assertEquals("30d", PantryFingerprint.expirationBucket(TODAY.plusDays(8), TODAY));
+        assertEquals("later", PantryFingerprint.expirationBucket(TODAY.plusDays(31), TODAY));
+    }
+}
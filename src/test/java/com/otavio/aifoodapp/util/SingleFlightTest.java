@@ -0,0 +1,109 @@
+package com.otavio.aifoodapp.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(meterRegistry, "test.calls");
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicBoolean upstreamCancelled = new AtomicBoolean();
+    private Sinks.One<String> upstream = Sinks.one();
+
+    private Mono<String> call() {
+        upstreamCalls.incrementAndGet();
+        return upstream.asMono().doOnCancel(() -> upstreamCancelled.set(true));
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        AtomicReference<String> first = new AtomicReference<>();
+        AtomicReference<String> second = new AtomicReference<>();
+        singleFlight.execute("key", this::call).subscribe(first::set);
+        singleFlight.execute("key", this::call).subscribe(second::set);
+
+        upstream.tryEmitValue("result");
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("result", first.get());
+        assertEquals("result", second.get());
+        assertEquals(1.0, meterRegistry.get("test.calls.issued").counter().count());
+        assertEquals(1.0, meterRegistry.get("test.calls.coalesced").counter().count());
+    }
+
+    @Test
+    void differentKeysAreNotCoalesced() {
+        singleFlight.execute("a", this::call).subscribe();
+        singleFlight.execute("b", this::call).subscribe();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void entryIsReleasedOnceTheCallCompletes() {
+        singleFlight.execute("key", this::call).subscribe();
+        upstream.tryEmitValue("result");
+        assertEquals(0.0, meterRegistry.get("test.calls.in-flight").gauge().value());
+
+        upstream = Sinks.one();
+        singleFlight.execute("key", this::call).subscribe();
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void errorsReachEveryCallerAndReleaseTheEntry() {
+        AtomicReference<Throwable> first = new AtomicReference<>();
+        AtomicReference<Throwable> second = new AtomicReference<>();
+        singleFlight.execute("key", this::call).subscribe(value -> { }, first::set);
+        singleFlight.execute("key", this::call).subscribe(value -> { }, second::set);
+
+        IllegalStateException failure = new IllegalStateException("boom");
+        upstream.tryEmitError(failure);
+
+        assertEquals(failure, first.get());
+        assertEquals(failure, second.get());
+        assertEquals(0.0, meterRegistry.get("test.calls.in-flight").gauge().value());
+    }
+
+    @Test
+    void upstreamKeepsRunningWhileOneCallerRemains() {
+        AtomicReference<String> remaining = new AtomicReference<>();
+        Disposable leaving = singleFlight.execute("key", this::call).subscribe();
+        singleFlight.execute("key", this::call).subscribe(remaining::set);
+
+        leaving.dispose();
+        assertFalse(upstreamCancelled.get());
+
+        upstream.tryEmitValue("result");
+        assertEquals("result", remaining.get());
+    }
+
+    @Test
+    void upstreamIsCancelledOnceEveryCallerHasLeft() {
+        Disposable first = singleFlight.execute("key", this::call).subscribe();
+        Disposable second = singleFlight.execute("key", this::call).subscribe();
+
+        first.dispose();
+        second.dispose();
+
+        assertTrue(upstreamCancelled.get());
+        assertEquals(0.0, meterRegistry.get("test.calls.in-flight").gauge().value());
+
+        upstream = Sinks.one();
+        singleFlight.execute("key", this::call).subscribe();
+        assertEquals(2, upstreamCalls.get());
+    }
+}